@@ -0,0 +1,66 @@
+package se.jensen.yuki.taskmanager.jmh;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import se.jensen.yuki.taskmanager.TaskManagerApplication;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import se.jensen.yuki.taskmanager.service.TaskService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the application without a web server against an in-memory H2 database and seeds it.
+ */
+final class BenchmarkApplication {
+    private static final String[] WORDS = {"deploy", "review", "plan", "write", "test", "release"};
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(Map<String, Object> extraProperties) {
+        Map<String, Object> properties = new HashMap<>(Map.of(
+                "spring.datasource.url", "jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "spring.datasource.username", "sa",
+                "spring.datasource.password", "",
+                "spring.datasource.driver-class-name", "org.h2.Driver",
+                "spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql", "false",
+                "spring.cache.type", "none",
+                "logging.level.root", "WARN"));
+        properties.putAll(extraProperties);
+        // Command line arguments, so they take precedence over application.properties.
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(TaskManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+
+    static void seed(TaskService taskService, int size) {
+        TaskStatus[] statuses = TaskStatus.values();
+        LocalDateTime now = LocalDateTime.now();
+        for (int start = 0; start < size; start += TaskService.MAX_BATCH_SIZE) {
+            int end = Math.min(size, start + TaskService.MAX_BATCH_SIZE);
+            List<Task> tasks = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                tasks.add(task(i, now, statuses[i % statuses.length]));
+            }
+            taskService.addAll(tasks);
+        }
+    }
+
+    static Task task(int i, LocalDateTime now, TaskStatus status) {
+        Task task = new Task(WORDS[i % WORDS.length] + " task " + i,
+                "Description of task " + i + " with some more text to make it realistic. ".repeat(3),
+                now, now.plusHours(i % 48), now.plusDays(i % 30));
+        task.setStatus(status);
+        return task;
+    }
+}
@@ -0,0 +1,79 @@
+package se.jensen.yuki.taskmanager.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import se.jensen.yuki.taskmanager.model.TaskField;
+import se.jensen.yuki.taskmanager.repository.TaskRepository;
+import se.jensen.yuki.taskmanager.service.TaskService;
+import se.jensen.yuki.taskmanager.web.TaskJsonWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load and serialize the full task list the way {@code GET /tasks} does: entities loaded by the repository and written by
+ * Jackson against projections written by {@link TaskJsonWriter}, with all fields and with the board
+ * card fields. Run with {@code mvn verify -Pjmh -Djmh.args="-prof gc ListEndpointBenchmark"} and
+ * compare {@code gc.alloc.rate.norm}, the bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListEndpointBenchmark {
+    private static final Set<TaskField> CARD_FIELDS = TaskField.parse("id,title,status,endDatetime");
+
+    @Param({"1000", "10000"})
+    public int datasetSize;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskRepository taskRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(Map.of());
+        taskService = context.getBean(TaskService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        BenchmarkApplication.seed(taskService, datasetSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void entitiesWithJackson() {
+        jsonMapper.writeValue(OutputStream.nullOutputStream(), taskRepository.findAll());
+    }
+
+    @Benchmark
+    public void viewsWithWriter() throws IOException {
+        TaskJsonWriter.write(taskService.getAllTaskViews(TaskField.ALL), TaskField.ALL, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void cardFieldsWithWriter() throws IOException {
+        TaskJsonWriter.write(taskService.getAllTaskViews(CARD_FIELDS), CARD_FIELDS, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,72 @@
+package se.jensen.yuki.taskmanager.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import se.jensen.yuki.taskmanager.dto.TaskView;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.service.TaskService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of logged service calls from 8 threads with the default logging setup
+ * (synchronous console and file appenders, show-sql, DEBUG) and with the "prod" profile
+ * (async JSON appenders, slow-query log only). Run with
+ * {@code mvn verify -Pjmh -Djmh.args=LoggingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoggingBenchmark {
+    private static final int DATASET_SIZE = 1000;
+
+    @Param({"default", "prod"})
+    public String logging;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("prod".equals(logging)
+                ? Map.of("spring.profiles.active", "prod", "logging.level.root", "INFO")
+                : Map.of("spring.jpa.show-sql", "true", "logging.level.root", "INFO"));
+        taskService = context.getBean(TaskService.class);
+        BenchmarkApplication.seed(taskService, DATASET_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<TaskView> getById() {
+        return taskService.getById(1L + (long) (Math.random() * DATASET_SIZE));
+    }
+
+    @Benchmark
+    public List<Task> findByKeyword() {
+        return taskService.findByKeyword("review task 1");
+    }
+}
@@ -0,0 +1,72 @@
+package se.jensen.yuki.taskmanager.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Task#copyFrom(Task)} and Jackson serialization of tasks, including the
+ * {@code @JsonFormat} LocalDateTime pattern.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    public int listSize;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private Task task;
+    private Task changes;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        task = BenchmarkApplication.task(1, now, TaskStatus.NOT_STARTED);
+        task.setId(1L);
+        changes = new Task(null, "Changed description", null, now.plusDays(1), null);
+        tasks = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            Task t = BenchmarkApplication.task(i, now, TaskStatus.values()[i % 3]);
+            t.setId((long) i + 1);
+            tasks.add(t);
+        }
+    }
+
+    @Benchmark
+    public Task copyFrom() {
+        task.copyFrom(changes);
+        return task;
+    }
+
+    @Benchmark
+    public byte[] serializeTask() {
+        return jsonMapper.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() {
+        return jsonMapper.writeValueAsBytes(tasks);
+    }
+}
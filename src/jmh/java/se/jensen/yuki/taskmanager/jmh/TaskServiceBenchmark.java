@@ -0,0 +1,75 @@
+package se.jensen.yuki.taskmanager.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import se.jensen.yuki.taskmanager.dto.TaskView;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskField;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import se.jensen.yuki.taskmanager.service.TaskService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service and repository read paths against H2 seeded with {@code datasetSize} tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    public int datasetSize;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(Map.of());
+        taskService = context.getBean(TaskService.class);
+        BenchmarkApplication.seed(taskService, datasetSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Task> findByKeyword() {
+        return taskService.findByKeyword("review");
+    }
+
+    @Benchmark
+    public List<Task> findByKeywordPage() {
+        return taskService.findByKeyword("review", 0, 50);
+    }
+
+    @Benchmark
+    public List<TaskView> findViewsByStatus() {
+        return taskService.findViewsByStatus(TaskStatus.IN_PROGRESS);
+    }
+
+    @Benchmark
+    public List<TaskView> getAllTaskViews() {
+        return taskService.getAllTaskViews(TaskField.ALL);
+    }
+}
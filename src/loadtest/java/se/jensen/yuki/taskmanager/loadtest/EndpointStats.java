@@ -0,0 +1,56 @@
+package se.jensen.yuki.taskmanager.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and errors of one {@link Operation}. Every latency is kept, which is a few MB for a run
+ * of several minutes, so percentiles are exact.
+ */
+final class EndpointStats {
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+    private long dropped;
+
+    synchronized void record(long latencyNanos, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    /**
+     * A request that was due but not sent because too many were still waiting for an answer.
+     */
+    synchronized void drop() {
+        dropped++;
+    }
+
+    synchronized Summary summarize() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Summary(count, errors, dropped, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1_000_000.0;
+    }
+
+    /**
+     * Latencies in milliseconds.
+     */
+    record Summary(long requests, long errors, long dropped, double p50, double p99, double max) {
+
+        double errorRate() {
+            long attempted = requests + dropped;
+            return attempted == 0 ? 0 : (double) (errors + dropped) / attempted;
+        }
+    }
+}
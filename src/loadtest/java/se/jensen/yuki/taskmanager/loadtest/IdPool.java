@@ -0,0 +1,52 @@
+package se.jensen.yuki.taskmanager.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ids of the tasks that exist, so requests by id mostly hit a task. Creates add to it and deletes
+ * take from it.
+ */
+final class IdPool {
+    private final List<Long> ids = new ArrayList<>();
+    private final Map<Long, Integer> positions = new HashMap<>();
+
+    synchronized void add(long id) {
+        if (positions.putIfAbsent(id, ids.size()) == null) {
+            ids.add(id);
+        }
+    }
+
+    synchronized int size() {
+        return ids.size();
+    }
+
+    /**
+     * A random id, or null if there are none.
+     */
+    synchronized Long pick(RandomGenerator random) {
+        return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+    }
+
+    /**
+     * Removes and returns a random id, or null if there are none.
+     */
+    synchronized Long take(RandomGenerator random) {
+        if (ids.isEmpty()) {
+            return null;
+        }
+        int index = random.nextInt(ids.size());
+        Long id = ids.get(index);
+        // Move the last id into the gap so removal stays O(1).
+        Long last = ids.removeLast();
+        if (index < ids.size()) {
+            ids.set(index, last);
+            positions.put(last, index);
+        }
+        positions.remove(id);
+        return id;
+    }
+}
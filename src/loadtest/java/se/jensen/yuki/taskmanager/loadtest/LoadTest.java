@@ -0,0 +1,318 @@
+package se.jensen.yuki.taskmanager.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import se.jensen.yuki.taskmanager.TaskManagerApplication;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drives the REST API with a mix of board traffic at a fixed rate and reports throughput, p50/p99
+ * latency and error rate per endpoint. Starts the application on a random port against in-memory H2
+ * or a PostgreSQL container and seeds it through {@code /tasks/batch}, or targets a running instance
+ * given with {@code --url}.
+ * <p>
+ * The load is open: requests are sent on schedule whether or not earlier ones have been answered,
+ * the way independent users behave, and latency is measured from when a request was due rather than
+ * when it was sent, so a stalled server shows up in the percentiles instead of slowing the test down.
+ * <p>
+ * Run with {@code mvn verify -Ploadtest -DskipTests -Dloadtest.args="--rate=500 --database=postgres"}.
+ * Options (defaults in brackets): {@code --rate} requests per second [200], {@code --seconds} [60],
+ * {@code --warmup} seconds [10], {@code --tasks} to seed [5000], {@code --database} h2 or postgres [h2],
+ * {@code --profiles} extra Spring profiles, {@code --url} of a running instance, {@code --mix} weights
+ * such as {@code board=50,status=10} (unlisted operations keep their default), {@code --max-in-flight}
+ * [1000], {@code --max-error-rate} [0.01] and {@code --report} CSV file
+ * [target/loadtest/result.csv]. Exits with 1 if any endpoint's error rate is above the maximum.
+ */
+public final class LoadTest {
+    private static final String[] WORDS = {"deploy", "review", "plan", "write", "test", "release"};
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final int SEED_BATCH_SIZE = 1_000;
+
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final IdPool ids = new IdPool();
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        boolean passed = new LoadTest(options).run();
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        String url = options.get("url");
+        if (url != null) {
+            return drive(url);
+        }
+        String database = option("database", "h2");
+        if (database.equals("postgres")) {
+            try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+                    .withDatabaseName("my_database")
+                    .withUsername("taskmanager")
+                    .withPassword("pass")) {
+                postgres.start();
+                return startAndDrive(Map.of(
+                        "spring.datasource.url", postgres.getJdbcUrl() + "&reWriteBatchedInserts=true",
+                        "spring.datasource.username", postgres.getUsername(),
+                        "spring.datasource.password", postgres.getPassword()));
+            }
+        }
+        if (!database.equals("h2")) {
+            throw new IllegalArgumentException("--database must be h2 or postgres, got: " + database);
+        }
+        return startAndDrive(Map.of(
+                "spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "spring.datasource.username", "sa",
+                "spring.datasource.password", "",
+                "spring.datasource.driver-class-name", "org.h2.Driver",
+                "spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect"));
+    }
+
+    private boolean startAndDrive(Map<String, Object> databaseProperties) throws Exception {
+        Map<String, Object> properties = new HashMap<>(databaseProperties);
+        properties.put("server.port", "0");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        if (options.containsKey("profiles")) {
+            properties.put("spring.profiles.active", options.get("profiles"));
+        }
+        // Command line arguments, so they take precedence over application.properties.
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .run(args)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            return drive("http://localhost:" + port);
+        }
+    }
+
+    private boolean drive(String baseUrl) throws Exception {
+        int tasks = Integer.parseInt(option("tasks", "5000"));
+        if (tasks > 0) {
+            seed(baseUrl, tasks);
+        } else {
+            loadIds(baseUrl);
+        }
+        System.out.printf("%d tasks, %s req/s%n", ids.size(), option("rate", "200"));
+
+        Map<Operation, Integer> mix = parseMix(options.get("mix"));
+        int rate = Integer.parseInt(option("rate", "200"));
+        int maxInFlight = Integer.parseInt(option("max-in-flight", "1000"));
+        // Warm up, then measure.
+        send(baseUrl, mix, rate, maxInFlight, Duration.ofSeconds(Long.parseLong(option("warmup", "10"))));
+        Duration duration = Duration.ofSeconds(Long.parseLong(option("seconds", "60")));
+        Map<Operation, EndpointStats> stats = send(baseUrl, mix, rate, maxInFlight, duration);
+        return report(stats, duration, Double.parseDouble(option("max-error-rate", "0.01")));
+    }
+
+    private void seed(String baseUrl, int tasks) throws IOException, InterruptedException {
+        for (int start = 0; start < tasks; start += SEED_BATCH_SIZE) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = start; i < Math.min(tasks, start + SEED_BATCH_SIZE); i++) {
+                if (i > start) {
+                    body.append(',');
+                }
+                body.append(taskJson(i));
+            }
+            body.append(']');
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/tasks/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode());
+            }
+            addIds(response.body());
+        }
+    }
+
+    private void loadIds(String baseUrl) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                URI.create(baseUrl + "/tasks?limit=1000&fields=id")).build(), HttpResponse.BodyHandlers.ofString());
+        addIds(response.body());
+    }
+
+    private void addIds(String json) {
+        Matcher matcher = ID.matcher(json);
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+    }
+
+    private Map<Operation, EndpointStats> send(String baseUrl, Map<Operation, Integer> mix, int rate, int maxInFlight,
+                                               Duration duration) {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        Operation[] wheel = weightedWheel(mix);
+        long interval = 1_000_000_000L / rate;
+        AtomicInteger inFlight = new AtomicInteger();
+        RandomGenerator random = ThreadLocalRandom.current();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long due = start; due < end; due += interval) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = wheel[random.nextInt(wheel.length)];
+                if (inFlight.get() >= maxInFlight) {
+                    stats.get(operation).drop();
+                    continue;
+                }
+                HttpRequest request = operation.request(baseUrl, ids, random);
+                if (request == null) {
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                long scheduled = due;
+                requests.submit(() -> {
+                    try {
+                        execute(operation, request, scheduled, stats.get(operation));
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+
+    private void execute(Operation operation, HttpRequest request, long scheduled, EndpointStats stats) {
+        boolean error;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            error = operation.isError(response.statusCode());
+            if (operation == Operation.CREATE && !error) {
+                addIds(response.body());
+            }
+        } catch (IOException e) {
+            error = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        stats.record(System.nanoTime() - scheduled, error);
+    }
+
+    private boolean report(Map<Operation, EndpointStats> stats, Duration duration, double maxErrorRate)
+            throws IOException {
+        double seconds = duration.toMillis() / 1000.0;
+        Path path = Path.of(option("report", "target/loadtest/result.csv"));
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        List<String> failed = new ArrayList<>();
+        System.out.printf("%-10s %10s %10s %10s %10s %10s %10s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "error %");
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(path))) {
+            csv.println("endpoint,requests,requests_per_second,p50_ms,p99_ms,max_ms,errors,dropped,error_rate");
+            for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+                EndpointStats.Summary summary = entry.getValue().summarize();
+                if (summary.requests() + summary.dropped() == 0) {
+                    continue;
+                }
+                String name = entry.getKey().getName();
+                System.out.printf("%-10s %10d %10.1f %10.1f %10.1f %10.1f %10d %8.2f%n", name,
+                        summary.requests(), summary.requests() / seconds, summary.p50(), summary.p99(),
+                        summary.max(), summary.errors() + summary.dropped(), summary.errorRate() * 100);
+                csv.println(String.format(Locale.ROOT, "%s,%d,%.1f,%.2f,%.2f,%.2f,%d,%d,%.4f", name,
+                        summary.requests(), summary.requests() / seconds, summary.p50(), summary.p99(),
+                        summary.max(), summary.errors(), summary.dropped(), summary.errorRate()));
+                if (summary.errorRate() > maxErrorRate) {
+                    failed.add(name);
+                }
+            }
+        }
+        System.out.println("Report written to " + path.toAbsolutePath());
+        if (!failed.isEmpty()) {
+            System.out.println("Error rate above " + maxErrorRate * 100 + "% for: " + String.join(", ", failed));
+        }
+        return failed.isEmpty();
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Default weights overridden by {@code board=50,status=10}; a weight of 0 turns an operation off.
+     */
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, operation.getDefaultWeight());
+        }
+        if (mix != null && !mix.isBlank()) {
+            for (String part : mix.split(",")) {
+                String[] weight = part.trim().split("=");
+                weights.put(Operation.fromName(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Each operation repeated by its weight, so a uniform pick from the array follows the mix.
+     */
+    private static Operation[] weightedWheel(Map<Operation, Integer> mix) {
+        List<Operation> wheel = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(operation);
+            }
+        });
+        if (wheel.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no operation with a weight above 0.");
+        }
+        return wheel.toArray(Operation[]::new);
+    }
+
+    static String taskJson(int i) {
+        String[] statuses = {"NOT_STARTED", "IN_PROGRESS", "DONE"};
+        return "{\"title\":\"" + WORDS[i % WORDS.length] + " task " + i + "\","
+                + "\"description\":\"Description of task " + i + "\","
+                + "\"status\":\"" + statuses[i % statuses.length] + "\","
+                + "\"priority\":" + (1 + i % 5) + ","
+                + "\"endDatetime\":\"2030-01-" + String.format(Locale.ROOT, "%02d", 1 + i % 28) + "T12:00:00\"}";
+    }
+}
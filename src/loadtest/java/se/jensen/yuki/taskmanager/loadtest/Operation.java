@@ -0,0 +1,103 @@
+package se.jensen.yuki.taskmanager.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * One kind of request in the traffic mix, with the share of traffic it gets unless {@code --mix}
+ * says otherwise. The defaults follow a board: mostly polling and lookups, a few edits.
+ */
+enum Operation {
+    BOARD("board", 25),
+    LIST("list", 10),
+    NEXT("next", 15),
+    GET("get", 15),
+    KEYWORD("keyword", 10),
+    STATUS("status", 12),
+    UPDATE("update", 6),
+    CREATE("create", 4),
+    DELETE("delete", 3);
+
+    private static final List<String> KEYWORDS = List.of("review", "deploy", "plan", "x7f", "missing");
+    private static final String[] STATUSES = {"NOT_STARTED", "IN_PROGRESS", "DONE"};
+
+    private final String name;
+    private final int defaultWeight;
+
+    Operation(String name, int defaultWeight) {
+        this.name = name;
+        this.defaultWeight = defaultWeight;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    /**
+     * Builds the request against {@code baseUrl}. Returns null when there is no task to work on.
+     */
+    HttpRequest request(String baseUrl, IdPool ids, RandomGenerator random) {
+        String status = STATUSES[random.nextInt(STATUSES.length)];
+        return switch (this) {
+            case BOARD -> get(baseUrl + "/tasks/board?limit=50");
+            case LIST -> get(baseUrl + "/tasks?status=" + status + "&limit=100");
+            case NEXT -> get(baseUrl + "/tasks/next?limit=20");
+            case KEYWORD -> get(baseUrl + "/tasks/keyword?keyword="
+                    + KEYWORDS.get(random.nextInt(KEYWORDS.size())) + "&size=50");
+            case GET -> withId(ids.pick(random), id -> get(baseUrl + "/tasks/" + id));
+            case STATUS -> withId(ids.pick(random), id -> json(baseUrl + "/tasks/" + id + "/update-status")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("\"" + status + "\""))
+                    .build());
+            case UPDATE -> withId(ids.pick(random), id -> json(baseUrl + "/tasks/" + id)
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"title\":\"edited " + id
+                            + "\",\"priority\":" + (1 + random.nextInt(5)) + "}"))
+                    .build());
+            case CREATE -> json(baseUrl + "/tasks")
+                    .POST(HttpRequest.BodyPublishers.ofString(LoadTest.taskJson(random.nextInt(1_000_000))))
+                    .build();
+            // Taken out of the pool first, so no other request picks a task that is being deleted.
+            case DELETE -> withId(ids.take(random), id -> HttpRequest.newBuilder(URI.create(baseUrl + "/tasks/" + id))
+                    .DELETE()
+                    .build());
+        };
+    }
+
+    /**
+     * 404 is an answer, not an error, for requests by id (the task can be deleted between picking and
+     * sending) and for keyword searches without matches.
+     */
+    boolean isError(int statusCode) {
+        if (statusCode == 404) {
+            return this == BOARD || this == LIST || this == NEXT || this == CREATE;
+        }
+        return statusCode >= 400;
+    }
+
+    static Operation fromName(String name) {
+        for (Operation operation : values()) {
+            if (operation.name.equals(name)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + name);
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static HttpRequest.Builder json(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Content-Type", "application/json");
+    }
+
+    private static HttpRequest withId(Long id, LongFunction<HttpRequest> request) {
+        return id == null ? null : request.apply(id);
+    }
+}
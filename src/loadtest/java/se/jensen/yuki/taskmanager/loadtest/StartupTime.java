@@ -0,0 +1,205 @@
+package se.jensen.yuki.taskmanager.loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Cold start of the application in each startup mode: the time Spring Boot reports for starting and
+ * the time from launching the process until {@code GET /tasks/next} is first answered with 200, which
+ * is when an autoscaled instance starts taking traffic. Every run is a new process against in-memory
+ * H2 (the dev profile), so the numbers don't depend on a database server.
+ * <p>
+ * Modes: {@code jar} plain JVM, {@code lazy} with the fast-startup profile, {@code aot} with the AOT
+ * generated context, {@code aot-cds} also with the class data sharing archive, {@code aot-cds-lazy}
+ * all of it, and {@code native} if a native executable has been built.
+ * <p>
+ * Build with {@code mvn -Paot -DskipTests package} (and {@code mvn -Pnative -DskipTests native:compile}
+ * for the native mode), then run with JDK 21 from the project directory:
+ * {@code java src/loadtest/java/se/jensen/yuki/taskmanager/loadtest/StartupTime.java}.
+ * Options (defaults in brackets): {@code --runs} per mode [5], {@code --modes} [all that are built],
+ * {@code --port} [18080], {@code --dir} with the extracted jar and CDS archive [target/startup],
+ * {@code --native} executable [target/task-manager] and {@code --report} CSV file
+ * [target/startup/startup-time.csv]. Prints the median and the best run of each mode.
+ */
+public final class StartupTime {
+    private static final Pattern STARTED = Pattern.compile(
+            "Started \\w+ in ([\\d.]+) seconds \\(process running for ([\\d.]+)\\)");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final List<String> MODES = List.of("jar", "lazy", "aot", "aot-cds", "aot-cds-lazy", "native");
+
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    private StartupTime(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Options are given as --name=value: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new StartupTime(options).run();
+    }
+
+    private void run() throws Exception {
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Path dir = Path.of(options.getOrDefault("dir", "target/startup"));
+        Path nativeExecutable = Path.of(options.getOrDefault("native", "target/task-manager"));
+        Path jar = findJar(dir);
+        List<String> modes = options.containsKey("modes")
+                ? Arrays.asList(options.get("modes").split(","))
+                : MODES.stream()
+                        .filter(mode -> !mode.equals("native") || Files.isExecutable(nativeExecutable))
+                        .toList();
+
+        Map<String, List<Run>> results = new LinkedHashMap<>();
+        for (String mode : modes) {
+            List<String> command = command(mode, jar, dir, nativeExecutable);
+            // One run to fill the OS file cache, which every later run then finds warm.
+            measure(command, dir.resolve(mode + "-warmup.log"));
+            List<Run> modeRuns = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                modeRuns.add(measure(command, dir.resolve(mode + "-" + i + ".log")));
+            }
+            results.put(mode, modeRuns);
+        }
+        report(results, Path.of(options.getOrDefault("report", dir.resolve("startup-time.csv").toString())));
+    }
+
+    private List<String> command(String mode, Path jar, Path dir, Path nativeExecutable) {
+        if (!MODES.contains(mode)) {
+            throw new IllegalArgumentException("Unknown mode " + mode + ", expected one of " + MODES);
+        }
+        String profiles = "--spring.profiles.active=dev" + (mode.endsWith("lazy") ? ",fast-startup" : "");
+        String port = "--server.port=" + options.getOrDefault("port", "18080");
+        if (mode.equals("native")) {
+            return List.of(nativeExecutable.toString(), profiles, port);
+        }
+        List<String> command = new ArrayList<>(List.of("java"));
+        if (mode.startsWith("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        if (mode.contains("cds")) {
+            command.add("-XX:SharedArchiveFile=" + dir.resolve("application.jsa"));
+        }
+        command.addAll(List.of("-jar", jar.toString(), profiles, port));
+        return command;
+    }
+
+    private Run measure(List<String> command, Path log) throws Exception {
+        URI uri = URI.create("http://localhost:" + options.getOrDefault("port", "18080") + "/tasks/next?limit=10");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + TIMEOUT.toNanos();
+            while (!answered(uri)) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Not answering after " + TIMEOUT + ", see " + log);
+                }
+                Thread.sleep(5);
+            }
+            double firstRequest = (System.nanoTime() - start) / 1_000_000.0;
+            Matcher started = STARTED.matcher(Files.readString(log));
+            if (!started.find()) {
+                throw new IllegalStateException("No startup time logged, see " + log);
+            }
+            return new Run(Double.parseDouble(started.group(1)) * 1000, Double.parseDouble(started.group(2)) * 1000,
+                    firstRequest);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private boolean answered(URI uri) throws InterruptedException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build();
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            // Not listening yet, or the connection was reset while the server was still starting.
+            return false;
+        }
+    }
+
+    private static Path findJar(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in " + dir
+                            + ", build it with mvn -Paot -DskipTests package"));
+        } catch (IOException e) {
+            throw new IOException("Can't read " + dir + ", build it with mvn -Paot -DskipTests package", e);
+        }
+    }
+
+    private static void report(Map<String, List<Run>> results, Path file) throws IOException {
+        System.out.printf(Locale.ROOT, "%-14s %14s %14s %14s %14s%n",
+                "mode", "started ms", "process ms", "1st req ms", "best 1st req");
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(file))) {
+            csv.println("mode,run,started_ms,process_ms,first_request_ms");
+            results.forEach((mode, runs) -> {
+                for (int i = 0; i < runs.size(); i++) {
+                    Run run = runs.get(i);
+                    csv.printf(Locale.ROOT, "%s,%d,%.0f,%.0f,%.0f%n",
+                            mode, i, run.started(), run.process(), run.firstRequest());
+                }
+                System.out.printf(Locale.ROOT, "%-14s %14.0f %14.0f %14.0f %14.0f%n", mode,
+                        median(runs.stream().mapToDouble(Run::started).toArray()),
+                        median(runs.stream().mapToDouble(Run::process).toArray()),
+                        median(runs.stream().mapToDouble(Run::firstRequest).toArray()),
+                        runs.stream().mapToDouble(Run::firstRequest).min().orElse(0));
+            });
+        }
+        System.out.println("Runs written to " + file);
+    }
+
+    private static double median(double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    /**
+     * Milliseconds: context started as logged by Spring Boot, process running when it was logged,
+     * and until the first request was answered as seen from outside.
+     */
+    private record Run(double started, double process, double firstRequest) {
+    }
+}
@@ -0,0 +1,402 @@
+package se.jensen.yuki.taskmanager.board;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import se.jensen.yuki.taskmanager.dto.BoardSummary;
+import se.jensen.yuki.taskmanager.dto.TaskCard;
+import se.jensen.yuki.taskmanager.dto.TaskCursor;
+import se.jensen.yuki.taskmanager.dto.TaskListVersion;
+import se.jensen.yuki.taskmanager.dto.TaskView;
+import se.jensen.yuki.taskmanager.event.TaskChangedEvent;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskSort;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import se.jensen.yuki.taskmanager.repository.TaskRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-process copy of every task, sorted by id per status, for boards that poll the list and board
+ * endpoints. Enabled with {@code taskmanager.board.in-memory=true}; built when the application is
+ * ready and kept up to date from {@link TaskChangedEvent}s.
+ * <p>
+ * Writers only touch the entry of their own task (a {@link ConcurrentHashMap} bin) and the skip lists,
+ * so they never block readers. Readers get an immutable snapshot per status that is copied again only
+ * after a write to that status. Open tasks are also kept sorted in {@code /tasks/next} order, so the
+ * first K of them are read in O(log N + K) without sorting or copying the rest.
+ * <p>
+ * A scheduled check compares the model with the database; when they differ twice in a row the model
+ * stops serving, so callers fall back to the database, and is rebuilt.
+ */
+@Component
+public class BoardReadModel {
+    private static final Logger logger = LoggerFactory.getLogger(BoardReadModel.class);
+    private static final int WARM_UP_PAGE_SIZE = 1000;
+    // Writes committing between the two reads of a check make single mismatches expected under load.
+    private static final int MISMATCHES_BEFORE_REBUILD = 2;
+
+    private final TaskRepository taskRepository;
+    private final boolean enabled;
+    // Null until built and while rebuilding; callers then read from the database.
+    private volatile State state;
+    // Events that arrive while a rebuild is loading, replayed onto the new state before it serves.
+    private volatile Queue<TaskChangedEvent> pending;
+    private int mismatches;
+
+    public BoardReadModel(TaskRepository taskRepository,
+                          @Value("${taskmanager.board.in-memory:false}") boolean enabled) {
+        this.taskRepository = taskRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether the model is built and answers reads; false while it is disabled, loading or rebuilding.
+     */
+    public boolean isServing() {
+        return state != null;
+    }
+
+    /**
+     * All tasks ordered by id, or empty when the model is disabled or stale.
+     */
+    public Optional<List<TaskView>> findAll() {
+        return findByStatus(null);
+    }
+
+    /**
+     * Tasks with {@code status} ordered by id, or empty when the model is disabled or stale.
+     */
+    public Optional<List<TaskView>> findByStatus(TaskStatus status) {
+        State current = state;
+        return current == null ? Optional.empty() : Optional.of(current.snapshot(status).tasks());
+    }
+
+    /**
+     * Weak ETag of the tasks with {@code status} (all tasks if null): a hash of their ids and versions
+     * in id order, so it only repeats for the same list. Empty when the model is disabled or stale.
+     */
+    public Optional<String> findListETag(TaskStatus status) {
+        State current = state;
+        return current == null ? Optional.empty() : Optional.of(current.snapshot(status).eTag());
+    }
+
+    /**
+     * The same summary as {@link TaskRepository#findBoard(int)}, or empty when the model is disabled or stale.
+     */
+    public Optional<BoardSummary> findBoard(int limit) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        Map<TaskStatus, List<TaskCard>> columns = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            List<TaskView> tasks = current.snapshot(status).tasks();
+            counts.put(status, (long) tasks.size());
+            columns.put(status, tasks.subList(0, Math.min(limit, tasks.size())).stream()
+                    .map(task -> new TaskCard(task.id(), task.title(), task.status(), task.endDatetime()))
+                    .toList());
+        }
+        return Optional.of(new BoardSummary(counts, columns));
+    }
+
+    /**
+     * The same tasks as {@link TaskRepository#findNext(int)}, or empty when the model is disabled or stale.
+     */
+    public Optional<List<TaskView>> findNext(int limit) {
+        State current = state;
+        return current == null ? Optional.empty() : Optional.of(current.next(limit));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // Queue before applying: if the queue is already gone, the rebuilt state is already serving.
+        Queue<TaskChangedEvent> queue = pending;
+        if (queue != null) {
+            queue.add(event);
+        }
+        State current = state;
+        if (current != null) {
+            current.apply(event);
+        }
+    }
+
+    /**
+     * Compares count, highest id and sum of versions with the database and rebuilds the model when
+     * they keep differing.
+     */
+    @Scheduled(fixedDelayString = "${taskmanager.board.check-interval:PT30S}",
+            initialDelayString = "${taskmanager.board.check-interval:PT30S}")
+    public synchronized void checkConsistency() {
+        if (!enabled) {
+            return;
+        }
+        State current = state;
+        if (current == null) {
+            // Not built yet or the last rebuild failed.
+            rebuild();
+            return;
+        }
+        TaskListVersion expected = taskRepository.findListVersion(null);
+        TaskListVersion actual = current.snapshot(null).listVersion();
+        if (expected.equals(actual)) {
+            mismatches = 0;
+            return;
+        }
+        mismatches++;
+        logger.warn("Board read model differs from the database ({} != {}), {} time(s) in a row",
+                actual, expected, mismatches);
+        if (mismatches >= MISMATCHES_BEFORE_REBUILD) {
+            mismatches = 0;
+            rebuild();
+        }
+    }
+
+    private synchronized void rebuild() {
+        state = null;
+        Queue<TaskChangedEvent> queue = new ConcurrentLinkedQueue<>();
+        pending = queue;
+        State rebuilt = new State();
+        try {
+            TaskCursor after = null;
+            List<Task> page;
+            do {
+                page = taskRepository.findPage(null, TaskSort.ID, after, WARM_UP_PAGE_SIZE);
+                page.forEach(rebuilt::load);
+                if (!page.isEmpty()) {
+                    after = TaskCursor.of(page.get(page.size() - 1).getId());
+                }
+            } while (page.size() == WARM_UP_PAGE_SIZE);
+        } catch (RuntimeException e) {
+            pending = null;
+            logger.error("Could not build the board read model, reading from the database", e);
+            return;
+        }
+
+        // Revisions make replaying idempotent, so events seen both by the load and the queue are harmless.
+        // Replay once before serving, and once more for events queued while the state was swapped in.
+        replay(queue, rebuilt);
+        state = rebuilt;
+        pending = null;
+        replay(queue, rebuilt);
+        logger.info("Board read model built with {} tasks", rebuilt.snapshot(null).tasks().size());
+    }
+
+    private static void replay(Queue<TaskChangedEvent> queue, State target) {
+        for (TaskChangedEvent event = queue.poll(); event != null; event = queue.poll()) {
+            target.apply(event);
+        }
+    }
+
+    /**
+     * The last revision applied to a task, with a null view once the task is deleted.
+     */
+    private record Entry(Long revision, TaskView view) {
+    }
+
+    /**
+     * Position of an open task in {@code /tasks/next} order: priority, end date with nulls last, id.
+     */
+    private record NextKey(int priority, LocalDateTime endDatetime, long id) implements Comparable<NextKey> {
+        private static final Comparator<NextKey> ORDER = Comparator.comparingInt(NextKey::priority)
+                .thenComparing(NextKey::endDatetime, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingLong(NextKey::id);
+
+        /**
+         * Null for a done task, which is never listed.
+         */
+        static NextKey of(TaskView task) {
+            if (task.status() == TaskStatus.DONE) {
+                return null;
+            }
+            return new NextKey(task.priority() == null ? Task.DEFAULT_PRIORITY : task.priority(),
+                    task.endDatetime(), task.id());
+        }
+
+        @Override
+        public int compareTo(NextKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * An immutable copy of one index with its fingerprint and ETag.
+     */
+    private record Snapshot(long version, List<TaskView> tasks, TaskListVersion listVersion, String eTag) {
+
+        static Snapshot of(long version, List<TaskView> tasks) {
+            long versionSum = 0;
+            long hash = tasks.size();
+            for (TaskView task : tasks) {
+                long taskVersion = task.version() == null ? 0 : task.version();
+                versionSum += taskVersion;
+                hash = mix(hash + mix(task.id() ^ mix(taskVersion)));
+            }
+            return new Snapshot(version, tasks, new TaskListVersion(tasks.size(),
+                    tasks.isEmpty() ? 0 : tasks.getLast().id(), versionSum),
+                    "W/\"h" + Long.toHexString(hash) + "\"");
+        }
+
+        /**
+         * The SplitMix64 finalizer: every input bit changes about half of the output bits.
+         */
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+
+    private static final class State {
+        // One slot per status plus a last one for all tasks.
+        private static final int ALL = TaskStatus.values().length;
+
+        private final ConcurrentHashMap<Long, Entry> byId = new ConcurrentHashMap<>();
+        private final List<ConcurrentSkipListMap<Long, TaskView>> indexes = new ArrayList<>(ALL + 1);
+        private final AtomicLongArray versions = new AtomicLongArray(ALL + 1);
+        private final AtomicReferenceArray<Snapshot> snapshots = new AtomicReferenceArray<>(ALL + 1);
+        private final ConcurrentSkipListMap<NextKey, TaskView> next = new ConcurrentSkipListMap<>();
+
+        State() {
+            for (int i = 0; i <= ALL; i++) {
+                indexes.add(new ConcurrentSkipListMap<>());
+            }
+        }
+
+        void load(Task task) {
+            apply(TaskChangedEvent.created(task));
+        }
+
+        void apply(TaskChangedEvent event) {
+            byId.compute(event.taskId(), (id, current) -> {
+                if (current != null && isOutdated(event.revision(), current.revision())) {
+                    return current;
+                }
+                TaskView previous = current == null ? null : current.view();
+                if (event.type() == TaskChangedEvent.Type.DELETED) {
+                    if (previous != null) {
+                        remove(ALL, previous.id());
+                        remove(slot(previous.status()), previous.id());
+                        removeNext(NextKey.of(previous));
+                    }
+                    // Keep the revision so an older update delivered later can't bring the task back.
+                    return new Entry(event.revision(), null);
+                }
+                TaskView view = TaskView.from(event.task());
+                // Put before removing from the old status so the task never disappears from the list of all tasks.
+                put(ALL, view);
+                put(slot(view.status()), view);
+                NextKey key = NextKey.of(view);
+                if (key != null) {
+                    next.put(key, view);
+                }
+                if (previous != null) {
+                    if (previous.status() != view.status()) {
+                        remove(slot(previous.status()), previous.id());
+                    }
+                    NextKey previousKey = NextKey.of(previous);
+                    if (!Objects.equals(previousKey, key)) {
+                        removeNext(previousKey);
+                    }
+                }
+                return new Entry(event.revision(), view);
+            });
+        }
+
+        /**
+         * The tasks with {@code status}, or all tasks if null.
+         */
+        Snapshot snapshot(TaskStatus status) {
+            int slot = status == null ? ALL : slot(status);
+            // Read the version before copying: a write during the copy leaves the snapshot outdated, never wrong.
+            long version = versions.get(slot);
+            Snapshot snapshot = snapshots.get(slot);
+            if (snapshot != null && snapshot.version() == version) {
+                return snapshot;
+            }
+            snapshot = Snapshot.of(version, List.copyOf(indexes.get(slot).values()));
+            snapshots.set(slot, snapshot);
+            return snapshot;
+        }
+
+        /**
+         * The first {@code limit} open tasks. A task being moved can be seen at its old and new
+         * position for a moment, so it is only listed the first time.
+         */
+        List<TaskView> next(int limit) {
+            List<TaskView> tasks = new ArrayList<>(Math.min(limit, next.size()));
+            Set<Long> seen = new HashSet<>();
+            for (TaskView task : next.values()) {
+                if (tasks.size() == limit) {
+                    break;
+                }
+                if (seen.add(task.id())) {
+                    tasks.add(task);
+                }
+            }
+            return tasks;
+        }
+
+        private void removeNext(NextKey key) {
+            if (key != null) {
+                next.remove(key);
+            }
+        }
+
+        private void put(int slot, TaskView view) {
+            if (slot >= 0) {
+                indexes.get(slot).put(view.id(), view);
+                versions.incrementAndGet(slot);
+            }
+        }
+
+        private void remove(int slot, Long id) {
+            if (slot >= 0) {
+                indexes.get(slot).remove(id);
+                versions.incrementAndGet(slot);
+            }
+        }
+
+        private static int slot(TaskStatus status) {
+            return status == null ? -1 : status.ordinal();
+        }
+
+        /**
+         * Events can be delivered out of order by different threads; an older revision must not overwrite a newer one.
+         */
+        private static boolean isOutdated(Long revision, Long currentRevision) {
+            return revision != null && currentRevision != null && revision <= currentRevision;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package se.jensen.yuki.taskmanager.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import se.jensen.yuki.taskmanager.config.CacheConfig;
+import se.jensen.yuki.taskmanager.event.TaskChangedEvent;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+
+/**
+ * Evicts exactly the cache entries a write can have made stale: the task itself and the
+ * status lists it was removed from or added to. When the previous status is unknown all
+ * status lists are evicted.
+ * <p>
+ * Runs after the write has committed: evicting before that would let a reader load the old row
+ * again and cache it. A load that is still running when the eviction comes in is dropped with it,
+ * since the caches load with {@code sync}.
+ */
+@Component
+public class TaskCacheInvalidator {
+    private final CacheManager cacheManager;
+
+    public TaskCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        Cache tasks = cacheManager.getCache(CacheConfig.TASKS_CACHE);
+        if (tasks != null) {
+            tasks.evict(event.taskId());
+        }
+
+        Cache tasksByStatus = cacheManager.getCache(CacheConfig.TASKS_BY_STATUS_CACHE);
+        if (tasksByStatus == null) {
+            return;
+        }
+        boolean previousStatusKnown = event.type() == TaskChangedEvent.Type.CREATED || event.previousStatus() != null;
+        if (!previousStatusKnown) {
+            tasksByStatus.clear();
+            return;
+        }
+        if (event.previousStatus() != null) {
+            tasksByStatus.evict(event.previousStatus());
+        }
+        TaskStatus status = event.task() != null ? event.task().getStatus() : null;
+        if (status != null) {
+            tasksByStatus.evict(status);
+        }
+    }
+}
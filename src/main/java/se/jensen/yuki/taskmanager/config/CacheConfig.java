@@ -0,0 +1,17 @@
+package se.jensen.yuki.taskmanager.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine backed caches for the read paths of {@link se.jensen.yuki.taskmanager.service.TaskService}.
+ * Size, TTL and statistics are configured with {@code spring.cache.caffeine.spec}. Entries are
+ * immutable {@link se.jensen.yuki.taskmanager.dto.TaskView}s, never managed entities, so callers can't
+ * change what other callers get.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String TASKS_CACHE = "tasks";
+    public static final String TASKS_BY_STATUS_CACHE = "tasksByStatus";
+}
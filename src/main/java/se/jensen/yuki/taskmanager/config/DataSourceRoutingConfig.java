@@ -0,0 +1,80 @@
+package se.jensen.yuki.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import se.jensen.yuki.taskmanager.datasource.ReadYourWrites;
+import se.jensen.yuki.taskmanager.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to read replicas, enabled with {@code taskmanager.datasource.routing=true}.
+ * <p>
+ * {@code spring.datasource.*} stays the primary, which gets every write, Flyway and anything run
+ * outside a read-only transaction. {@code taskmanager.datasource.replica-urls} lists the replicas,
+ * which log in with {@code replica-username} and {@code replica-password} (the primary's by default)
+ * and share {@code spring.datasource.hikari.maximum-pool-size}. Replica lag is read with
+ * {@code lag-query} (PostgreSQL streaming replication by default) and compared with {@code max-replica-lag}.
+ * <p>
+ * The application's data source is a {@link LazyConnectionDataSourceProxy}: Hibernate begins a
+ * transaction before it runs a statement, and the proxy only picks the pool when the first statement
+ * runs, after a read-only transaction has marked the connection read-only.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "taskmanager.datasource.routing", havingValue = "true")
+public class DataSourceRoutingConfig {
+    private static final String POSTGRES_LAG_QUERY = """
+            SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp()), 0) END
+            """;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaDataSource(
+            HikariDataSource primaryDataSource, ReadYourWrites readYourWrites,
+            @Value("${taskmanager.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${taskmanager.datasource.replica-username:${spring.datasource.username}}") String username,
+            @Value("${taskmanager.datasource.replica-password:${spring.datasource.password}}") String password,
+            @Value("${taskmanager.datasource.max-replica-lag:PT10S}") Duration maxLag,
+            @Value("${taskmanager.datasource.lag-query:}") String lagQuery) {
+        List<HikariDataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWrites, maxLag,
+                lagQuery.isBlank() ? POSTGRES_LAG_QUERY : lagQuery);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
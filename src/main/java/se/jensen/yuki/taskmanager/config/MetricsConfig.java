@@ -0,0 +1,20 @@
+package se.jensen.yuki.taskmanager.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Makes {@link io.micrometer.core.annotation.Timed} work on Spring beans. Timers are published as
+ * {@code taskmanager.service} and {@code taskmanager.repository}, tagged with class, method and exception;
+ * histograms and percentiles are configured with {@code management.metrics.distribution.*}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -12,7 +12,7 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/", "/index.html", "/stylesheet.css", "/app.js").permitAll()
+                        .requestMatchers("/", "/index.html", "/*.css", "/*.js").permitAll()
                         .anyRequest().permitAll());
         return http.build();
     }
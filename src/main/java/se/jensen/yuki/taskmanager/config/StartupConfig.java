@@ -0,0 +1,22 @@
+package se.jensen.yuki.taskmanager.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans created at startup even with {@code spring.main.lazy-initialization=true} (the fast-startup
+ * profile): the schema is migrated and Hibernate bootstrapped before the instance reports ready, not
+ * on its first request. Spring Boot already keeps beans with {@code @Scheduled} methods eager.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerPersistence() {
+        return LazyInitializationExcludeFilter.forBeanTypes(FlywayMigrationInitializer.class,
+                EntityManagerFactory.class);
+    }
+}
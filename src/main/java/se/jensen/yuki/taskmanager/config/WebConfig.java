@@ -0,0 +1,81 @@
+package se.jensen.yuki.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.CssLinkResourceTransformer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+import se.jensen.yuki.taskmanager.web.ConcurrencyLimitInterceptor;
+import se.jensen.yuki.taskmanager.web.HtmlLinkResourceTransformer;
+import se.jensen.yuki.taskmanager.web.TaskViewsHttpMessageConverter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    // A script or stylesheet name with the 32 hex digit content hash VersionResourceResolver puts in it.
+    private static final String VERSIONED_ASSET = "/{file:[\\w.-]+-[0-9a-f]{32}\\.(?:js|css)}";
+
+    private final int maxConcurrentRequests;
+    private final Duration acquireTimeout;
+
+    public WebConfig(@Value("${taskmanager.concurrency.max-per-endpoint:0}") int maxConcurrentRequests,
+                     @Value("${taskmanager.concurrency.acquire-timeout:500ms}") Duration acquireTimeout) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (maxConcurrentRequests > 0) {
+            registry.addInterceptor(new ConcurrencyLimitInterceptor(maxConcurrentRequests, acquireTimeout))
+                    .addPathPatterns("/tasks/**")
+                    // Event subscribers stay connected for minutes and hold no thread.
+                    .excludePathPatterns("/tasks/events");
+        }
+    }
+
+    /**
+     * Scripts and stylesheets are linked under URLs with a hash of their content, e.g. {@code app-<hash>.js},
+     * so browsers and proxies may keep those for a year without asking again. The plain names still work
+     * but are revalidated on every use, since their content changes with a deploy. The build puts a gzip
+     * copy next to each file (and a brotli copy if present is preferred), which is sent as is to clients
+     * that accept it. The board page itself is revalidated on every load and has its links rewritten
+     * to the current hashes, so a deploy is picked up on the next load.
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // More specific than the plain patterns below, so a hashed name is served by this handler.
+        staticAsset(registry.addResourceHandler(VERSIONED_ASSET),
+                CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+        staticAsset(registry.addResourceHandler("/*.js", "/*.css"), CacheControl.noCache());
+        registry.addResourceHandler("/index.html")
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(true)
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+                .addTransformer(new HtmlLinkResourceTransformer());
+    }
+
+    private static void staticAsset(ResourceHandlerRegistration registration, CacheControl cacheControl) {
+        registration.addResourceLocations("classpath:/static/")
+                .setCacheControl(cacheControl)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+                .addTransformer(new CssLinkResourceTransformer());
+    }
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        // Custom converters go ahead of the defaults, so Jackson, which could write TaskViews too, comes second.
+        builder.addCustomConverter(new TaskViewsHttpMessageConverter());
+    }
+}
@@ -1,27 +1,73 @@
 package se.jensen.yuki.taskmanager.controller;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import se.jensen.yuki.taskmanager.dto.ImportProgress;
+import se.jensen.yuki.taskmanager.dto.TaskCursor;
+import se.jensen.yuki.taskmanager.dto.TaskView;
+import se.jensen.yuki.taskmanager.dto.TaskViews;
+import se.jensen.yuki.taskmanager.event.TaskEventHub;
 import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskField;
+import se.jensen.yuki.taskmanager.model.TaskFormat;
+import se.jensen.yuki.taskmanager.model.TaskSort;
 import se.jensen.yuki.taskmanager.model.TaskStatus;
-import se.jensen.yuki.taskmanager.repository.TaskRepository;
+import se.jensen.yuki.taskmanager.service.StatusWriteBuffer;
+import se.jensen.yuki.taskmanager.service.TaskImporter;
 import se.jensen.yuki.taskmanager.service.TaskService;
+import se.jensen.yuki.taskmanager.web.TaskCsvReader;
+import se.jensen.yuki.taskmanager.web.TaskCsvWriter;
+import se.jensen.yuki.taskmanager.web.TaskNdjsonReader;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/tasks")
 @CrossOrigin(origins = "*")
 @Tag(name = "tasks", description = "Handle all tasks for task manager")
 public class TaskController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
     private final TaskService taskService;
-    private final TaskRepository taskRepository;
+    private final TaskEventHub taskEventHub;
+    private final ObjectMapper objectMapper;
+    private final StatusWriteBuffer statusWriteBuffer;
+    private final TaskImporter taskImporter;
 
-    public TaskController(TaskService taskService, TaskRepository taskRepository) {
+    public TaskController(TaskService taskService, TaskEventHub taskEventHub, ObjectMapper objectMapper,
+                          StatusWriteBuffer statusWriteBuffer, TaskImporter taskImporter) {
         this.taskService = taskService;
-        this.taskRepository = taskRepository;
+        this.taskEventHub = taskEventHub;
+        this.objectMapper = objectMapper;
+        this.statusWriteBuffer = statusWriteBuffer;
+        this.taskImporter = taskImporter;
     }
 
     @PostMapping
@@ -33,24 +79,220 @@ public class TaskController {
         }
     }
 
+    /**
+     * Without parameters the whole table is returned as before. With any of the
+     * parameters set, a keyset page is returned; a full page carries the cursor of
+     * the next one in {@value #NEXT_CURSOR_HEADER}, to pass as {@code after}. For the
+     * default id order the id of the last task is a cursor too. {@code fields}, e.g.
+     * {@code id,title,status}, limits the columns that are returned.
+     */
     @GetMapping
-    public List<Task> getAllTasks() {
-        return taskService.getAllTasks();
+    public ResponseEntity<?> getAllTasks(@RequestParam(required = false) TaskStatus status,
+                                         @RequestParam(required = false) String after,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) TaskSort sort,
+                                         @RequestParam(required = false) String fields,
+                                         WebRequest request) {
+        // Thrown out of the transaction, not caught in it: a participating call that fails marks it rollback-only.
+        try {
+            return taskService.readWithListETag(status, eTag -> {
+                if (request.checkNotModified(eTag)) {
+                    return null;
+                }
+                Set<TaskField> selected = TaskField.parse(fields);
+                if (status == null && after == null && limit == null && sort == null) {
+                    return ResponseEntity.ok().eTag(eTag).body(new TaskViews(selected, taskService.getAllTaskViews(selected)));
+                }
+                TaskSort order = sort == null ? TaskSort.ID : sort;
+                int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+                List<TaskView> page = taskService.getPageViews(status, order, TaskCursor.parse(after, order), size, selected);
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag);
+                if (page.size() == size) {
+                    response.header(NEXT_CURSOR_HEADER, TaskCursor.after(page.getLast(), order).format(order));
+                }
+                return response.body(new TaskViews(selected, page));
+            });
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> addTasks(@RequestBody List<Task> tasks) {
+        try {
+            return ResponseEntity.ok(taskService.addAll(tasks));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<?> updateTasks(@RequestBody List<Task> tasks) {
+        try {
+            return ResponseEntity.ok(taskService.updateAll(tasks));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<?> deleteTasks(@RequestBody List<Long> ids) {
+        try {
+            return ResponseEntity.ok(taskService.deleteAll(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Everything the board needs on first load: the number of tasks per status and the first
+     * {@code limit} cards of each column, without descriptions.
+     */
+    @GetMapping("/board")
+    public ResponseEntity<?> getBoard(@RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+                                      WebRequest request) {
+        try {
+            return taskService.readWithListETag(null, eTag -> request.checkNotModified(eTag)
+                    ? null : ResponseEntity.ok().eTag(eTag).body(taskService.getBoard(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Streams every task as newline delimited JSON straight from a database cursor,
+     * so memory use does not depend on the size of the table.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTasks(@RequestParam(required = false) TaskStatus status) {
+        StreamingResponseBody body = out -> taskService.streamTasks(status, task -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(task));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Downloads every task (or every task with {@code status}) as CSV or NDJSON, optionally gzipped.
+     * Rows are written straight from a database cursor, so memory use does not depend on the table size.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "CSV") TaskFormat format,
+                                                             @RequestParam(defaultValue = "false") boolean gzip,
+                                                             @RequestParam(required = false) TaskStatus status) {
+        StreamingResponseBody body = out -> {
+            GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, TRANSFER_BUFFER_SIZE) : null;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(compressed != null ? compressed : out,
+                    StandardCharsets.UTF_8), TRANSFER_BUFFER_SIZE);
+            if (format == TaskFormat.CSV) {
+                TaskCsvWriter.writeHeader(writer);
+            }
+            taskService.streamTasks(status, task -> {
+                try {
+                    if (format == TaskFormat.CSV) {
+                        TaskCsvWriter.writeRow(writer, task);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(task));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            if (compressed != null) {
+                compressed.finish();
+            }
+        };
+        String filename = "tasks." + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
     }
 
+    /**
+     * Creates a task for every row of a CSV or NDJSON upload, in the format {@code /export} writes.
+     * The upload is parsed while it arrives and inserted in chunks, each in its own transaction; send
+     * it with {@code Content-Encoding: gzip} if it is compressed. The response is NDJSON with one
+     * {@link ImportProgress} line per chunk and a last one with {@code done} set.
+     */
+    @PostMapping(value = "/import", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importTasks(@RequestParam(defaultValue = "CSV") TaskFormat format,
+                                                             @RequestHeader(value = HttpHeaders.CONTENT_ENCODING,
+                                                                     required = false) String contentEncoding,
+                                                             InputStream upload) {
+        boolean gzip = "gzip".equalsIgnoreCase(contentEncoding);
+        StreamingResponseBody body = out -> {
+            InputStream in = gzip ? new GZIPInputStream(upload, TRANSFER_BUFFER_SIZE) : upload;
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8),
+                    TRANSFER_BUFFER_SIZE);
+            Consumer<ImportProgress> report = progress -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(progress));
+                    out.write('\n');
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            Iterator<Task> rows;
+            try {
+                rows = format == TaskFormat.CSV ? new TaskCsvReader(reader) : new TaskNdjsonReader(reader, objectMapper);
+            } catch (IllegalArgumentException e) {
+                // No header row.
+                report.accept(new ImportProgress(0, 0, 0, e.getMessage(), true));
+                return;
+            }
+            taskImporter.importTasks(rows, report);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Changes after revision {@code since} for clients that keep a local copy: start with
+     * {@code since=0}, then send the returned {@code revision} until {@code hasMore} is false.
+     * Deleted tasks are included as tombstones with {@code deleted} set.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(defaultValue = "0") long since,
+                                        @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            return ResponseEntity.ok(taskService.getChangesSince(since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Spring answers {@code If-None-Match} with 304 Not Modified when it matches the task's ETag.
+     */
     @GetMapping("/{id}")
     public ResponseEntity<?> getTask(@PathVariable Long id) {
         return taskService.getById(id)
-                .map(ResponseEntity::ok)
+                .map(task -> ResponseEntity.ok().eTag(eTag(task.version())).body(task))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("keyword")
-    public ResponseEntity<?> getTaskByKeyword(@RequestParam String keyword) {
+    public ResponseEntity<?> getTaskByKeyword(@RequestParam String keyword,
+                                              @RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                              @RequestParam(required = false) String fields) {
         try {
-            List<Task> tasks = taskService.findByKeyword(keyword);
+            Set<TaskField> selected = TaskField.parse(fields);
+            List<TaskView> tasks = taskService.findViewsByKeyword(keyword, page, size, selected);
             if (!tasks.isEmpty()) {
-                return ResponseEntity.ok(tasks);
+                return ResponseEntity.ok(new TaskViews(selected, tasks));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -59,12 +301,22 @@ public class TaskController {
         }
     }
 
+    /**
+     * Tasks with {@code status}. The ETag is read before the tasks, which come from the cache or the
+     * primary, so with replica routing the body is never older than the ETag it is sent with.
+     */
     @GetMapping("status")
-    public ResponseEntity<?> getTasksByStatus(TaskStatus status) {
+    public ResponseEntity<?> getTasksByStatus(TaskStatus status, @RequestParam(required = false) String fields,
+                                              WebRequest request) {
         try {
-            List<Task> tasks = taskService.findByStatus(status);
+            String eTag = taskService.getListETag(status);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+            Set<TaskField> selected = TaskField.parse(fields);
+            List<TaskView> tasks = taskService.findViewsByStatus(status);
             if (!tasks.isEmpty()) {
-                return ResponseEntity.ok(tasks);
+                return ResponseEntity.ok().eTag(eTag).body(new TaskViews(selected, tasks));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -73,27 +325,92 @@ public class TaskController {
         }
     }
 
+    /**
+     * Tasks that are not done and past their end date, most overdue first.
+     */
+    @GetMapping("/overdue")
+    public ResponseEntity<?> getOverdueTasks(@RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            return ResponseEntity.ok(taskService.findOverdue(limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Open tasks to work on next: highest priority (1) first, then earliest end date, then id.
+     */
+    @GetMapping("/next")
+    public ResponseEntity<?> getNextTasks(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(taskService.findNext(limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Tasks that are not done and end within the next {@code days} days, soonest first.
+     */
+    @GetMapping("/due")
+    public ResponseEntity<?> getTasksDueWithin(@RequestParam(defaultValue = "7") int days,
+                                               @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            return ResponseEntity.ok(taskService.findDueWithin(days, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Server-sent events with every create, update, status change and delete. Browsers resume
+     * automatically by sending the id of the last event they saw in {@code Last-Event-ID}; an id the
+     * hub can't resume from gets a {@code reset} event.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return ResponseEntity.ok(taskEventHub.subscribe(lastEventId == null || lastEventId.isBlank() ? null : lastEventId));
+    }
+
+    /**
+     * With {@code If-Match} the update is only applied if the task still has that ETag,
+     * otherwise 412 Precondition Failed is returned and nothing is changed.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateTask(@PathVariable Long id, @RequestBody Task task) {
+    public ResponseEntity<?> updateTask(@PathVariable Long id, @RequestBody Task task,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            return ResponseEntity.ok(taskService.update(id, task));
+            Task savedTask = taskService.update(id, task, parseVersion(ifMatch));
+            return ResponseEntity.ok().eTag(eTag(savedTask.getVersion())).body(savedTask);
         } catch (NoSuchElementException e) {
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * With write-behind enabled the change is only queued and 202 Accepted is returned without a body;
+     * the new status is visible once the buffer has been flushed (see {@link StatusWriteBuffer}).
+     */
     @PatchMapping("/{id}/update-status")
     public ResponseEntity<?> updateStatus(@PathVariable Long id, @RequestBody TaskStatus status) {
         if (status == null) {
             return ResponseEntity.badRequest().build();
         }
-        return taskRepository.findById(id)
-                .map(task -> {
-                    task.setStatus(status);
-                    Task savedTask = taskRepository.save(task);
-                    return ResponseEntity.ok(savedTask);
-                })
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            if (statusWriteBuffer.isEnabled()) {
+                statusWriteBuffer.submit(id, status);
+                return ResponseEntity.accepted().build();
+            }
+            return taskService.updateStatus(id, status)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -106,4 +423,21 @@ public class TaskController {
         }
     }
 
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Reads the version out of an {@code If-Match} ETag; null for a missing header or {@code *}.
+     */
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must be a single strong ETag.");
+        }
+        return Long.parseLong(value.substring(1, value.length() - 1));
+    }
 }
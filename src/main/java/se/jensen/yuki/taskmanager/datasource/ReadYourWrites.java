@@ -0,0 +1,109 @@
+package se.jensen.yuki.taskmanager.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import se.jensen.yuki.taskmanager.event.TaskChangedEvent;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Staleness policy of the replica routing: a client that just wrote reads from the primary for
+ * {@code taskmanager.datasource.read-your-writes} (default 5s, 0 turns it off), so it never sees its
+ * own change undone by a lagging replica.
+ * <p>
+ * After a write commits, the response gets a cookie with the time until which the client is pinned,
+ * and the rest of the request reads from the primary. Later requests carrying the cookie do the same.
+ * The cookie keeps the service stateless, so it works across instances behind a load balancer.
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.datasource.routing", havingValue = "true")
+public class ReadYourWrites {
+    public static final String COOKIE_NAME = "taskmanager-primary-until";
+    private static final String PINNED_ATTRIBUTE = ReadYourWrites.class.getName() + ".PINNED";
+
+    private final Duration window;
+    private final Clock clock;
+
+    public ReadYourWrites(@Value("${taskmanager.datasource.read-your-writes:PT5S}") Duration window) {
+        this(window, Clock.systemUTC());
+    }
+
+    ReadYourWrites(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    /**
+     * True if the current request has to read from the primary.
+     */
+    public boolean requiresPrimary() {
+        ServletRequestAttributes attributes = currentRequest();
+        if (attributes == null) {
+            return false;
+        }
+        if (attributes.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > clock.millis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Pins the client that made the write. Writes outside a request, like the flushes of the status
+     * write-behind buffer, have no client to pin.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        ServletRequestAttributes attributes = currentRequest();
+        if (attributes == null) {
+            return;
+        }
+        attributes.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, Long.toString(clock.millis() + window.toMillis()))
+                .path("/")
+                .maxAge(window)
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    /**
+     * The request being handled on this thread, or null outside a request or when the policy is off.
+     */
+    private ServletRequestAttributes currentRequest() {
+        if (window.isZero()) {
+            return null;
+        }
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes : null;
+    }
+}
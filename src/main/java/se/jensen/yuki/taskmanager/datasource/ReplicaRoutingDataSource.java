@@ -0,0 +1,101 @@
+package se.jensen.yuki.taskmanager.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Where read-only transactions get their connection: the replica pools in turn, or the primary when
+ * {@link ReadYourWrites} pins the client or no replica is within {@code maxLag} of the primary.
+ * <p>
+ * Replica lag is checked every {@code taskmanager.datasource.lag-check-interval} with {@code lagQuery},
+ * which returns the lag in seconds; a replica that is too far behind or can't be reached is left out
+ * until a later check finds it caught up.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    static final String PRIMARY = "primary";
+
+    private final List<HikariDataSource> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    // Keys of the replicas that passed the last lag check.
+    private volatile List<String> healthy;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                    ReadYourWrites readYourWrites, Duration maxLag, String lagQuery) {
+        this.replicas = replicas;
+        this.readYourWrites = readYourWrites;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (HikariDataSource replica : replicas) {
+            targets.put(replica.getPoolName(), replica);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        // Serve from the replicas until the first check says otherwise.
+        this.healthy = replicas.stream().map(HikariDataSource::getPoolName).toList();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> candidates = healthy;
+        if (candidates.isEmpty() || readYourWrites.requiresPrimary()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${taskmanager.datasource.lag-check-interval:PT5S}")
+    public void checkReplicaLag() {
+        List<String> passed = new ArrayList<>(replicas.size());
+        for (HikariDataSource replica : replicas) {
+            try {
+                double lagSeconds = lagSeconds(replica);
+                if (lagSeconds * 1000 <= maxLag.toMillis()) {
+                    passed.add(replica.getPoolName());
+                } else {
+                    logger.warn("Replica {} is {}s behind, reading from the others", replica.getPoolName(), lagSeconds);
+                }
+            } catch (SQLException e) {
+                logger.warn("Replica {} could not be checked, reading from the others", replica.getPoolName(), e);
+            }
+        }
+        if (passed.isEmpty() && !replicas.isEmpty() && !healthy.isEmpty()) {
+            logger.error("No replica within {} of the primary, reading from the primary", maxLag);
+        }
+        healthy = List.copyOf(passed);
+    }
+
+    private double lagSeconds(DataSource replica) throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(lagQuery)) {
+            return result.next() ? result.getDouble(1) : 0;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
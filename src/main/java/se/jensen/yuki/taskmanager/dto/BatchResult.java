@@ -0,0 +1,15 @@
+package se.jensen.yuki.taskmanager.dto;
+
+/**
+ * Outcome of one item in a batch request. {@code index} is the position of the item in the request.
+ */
+public record BatchResult(int index, Long id, Outcome outcome) {
+
+    public enum Outcome {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        INVALID
+    }
+}
@@ -0,0 +1,12 @@
+package se.jensen.yuki.taskmanager.dto;
+
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Number of tasks per status and the first cards of every column, ordered by id.
+ */
+public record BoardSummary(Map<TaskStatus, Long> counts, Map<TaskStatus, List<TaskCard>> columns) {
+}
@@ -0,0 +1,8 @@
+package se.jensen.yuki.taskmanager.dto;
+
+/**
+ * Progress of an import: rows read so far, tasks created and rows skipped because they were invalid.
+ * {@code error} describes the last skipped row; {@code done} is set on the final report.
+ */
+public record ImportProgress(long read, long imported, long invalid, String error, boolean done) {
+}
@@ -0,0 +1,13 @@
+package se.jensen.yuki.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns a board card renders. Leaves out the description, which is loaded when a card is opened.
+ */
+public record TaskCard(Long id, String title, TaskStatus status,
+                       @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime endDatetime) {
+}
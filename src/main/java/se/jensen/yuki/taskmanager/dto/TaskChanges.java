@@ -0,0 +1,12 @@
+package se.jensen.yuki.taskmanager.dto;
+
+import se.jensen.yuki.taskmanager.model.Task;
+
+import java.util.List;
+
+/**
+ * One page of the change feed. {@code revision} is the value to send as {@code since} next time;
+ * {@code hasMore} is true when the page was full and more changes may be waiting.
+ */
+public record TaskChanges(List<Task> tasks, long revision, boolean hasMore) {
+}
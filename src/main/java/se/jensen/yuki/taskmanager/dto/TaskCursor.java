@@ -0,0 +1,66 @@
+package se.jensen.yuki.taskmanager.dto;
+
+import se.jensen.yuki.taskmanager.model.TaskSort;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset cursor of the paginated task list: the sort value and id of the last task of the previous
+ * page. The next page is found from these two values alone, so it still works after that task has
+ * been deleted. Written as {@code <id>} for {@link TaskSort#ID} and as {@code <value>_<id>} for the
+ * other orders, e.g. {@code 2026-03-02T10:00:00.125_42}, or {@code _42} when the task has no value.
+ */
+public record TaskCursor(LocalDateTime value, long id) {
+    private static final char SEPARATOR = '_';
+
+    /**
+     * A cursor for {@link TaskSort#ID}.
+     */
+    public static TaskCursor of(long id) {
+        return new TaskCursor(null, id);
+    }
+
+    /**
+     * The cursor that continues after {@code task}, which must have the field of {@code sort} loaded.
+     */
+    public static TaskCursor after(TaskView task, TaskSort sort) {
+        LocalDateTime value = switch (sort) {
+            case ID -> null;
+            case CREATED_DATETIME -> task.createdDatetime();
+            case END_DATETIME -> task.endDatetime();
+        };
+        return new TaskCursor(value, task.id());
+    }
+
+    /**
+     * Parses a cursor written by {@link #format}; null stays null. Throws {@link IllegalArgumentException}
+     * when the cursor doesn't fit {@code sort} or its id isn't positive.
+     */
+    public static TaskCursor parse(String cursor, TaskSort sort) {
+        if (cursor == null) {
+            return null;
+        }
+        int separator = cursor.lastIndexOf(SEPARATOR);
+        if (sort == TaskSort.ID ? separator >= 0 : separator < 0) {
+            throw new IllegalArgumentException("Cursor doesn't fit sort " + sort + ": " + cursor);
+        }
+        try {
+            long id = Long.parseLong(cursor.substring(separator + 1));
+            if (id <= 0) {
+                throw new IllegalArgumentException("Cursor ID must be a positive number.");
+            }
+            LocalDateTime value = separator > 0 ? LocalDateTime.parse(cursor.substring(0, separator)) : null;
+            return new TaskCursor(value, id);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor, e);
+        }
+    }
+
+    public String format(TaskSort sort) {
+        if (sort == TaskSort.ID) {
+            return Long.toString(id);
+        }
+        return (value == null ? "" : value.toString()) + SEPARATOR + id;
+    }
+}
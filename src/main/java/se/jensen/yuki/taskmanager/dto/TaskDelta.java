@@ -0,0 +1,15 @@
+package se.jensen.yuki.taskmanager.dto;
+
+import se.jensen.yuki.taskmanager.event.TaskChangedEvent;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+
+/**
+ * A change pushed to board clients. {@code task} is null for deletions.
+ */
+public record TaskDelta(TaskChangedEvent.Type type, Long id, Task task, TaskStatus previousStatus) {
+
+    public static TaskDelta from(TaskChangedEvent event) {
+        return new TaskDelta(event.type(), event.taskId(), event.task(), event.previousStatus());
+    }
+}
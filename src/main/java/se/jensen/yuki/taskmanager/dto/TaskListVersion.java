@@ -0,0 +1,9 @@
+package se.jensen.yuki.taskmanager.dto;
+
+/**
+ * Cheap fingerprint of a set of tasks, used to check the board read model against the database.
+ * Different sets can share a fingerprint (an update plus a delete and re-insert below the highest id
+ * can leave all three unchanged), so it is not fit for ETags; see {@code TaskService#getListETag}.
+ */
+public record TaskListVersion(long count, long maxId, long versionSum) {
+}
@@ -0,0 +1,24 @@
+package se.jensen.yuki.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only copy of a task for list endpoints, loaded as a projection so Hibernate neither manages
+ * nor snapshots it. Fields that were not selected are null.
+ */
+public record TaskView(Long id, String title, String description,
+                       @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime createdDatetime,
+                       @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime startDatetime,
+                       @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime endDatetime,
+                       TaskStatus status, Integer priority, Long version) {
+
+    public static TaskView from(Task task) {
+        return new TaskView(task.getId(), task.getTitle(), task.getDescription(), task.getCreatedDatetime(),
+                task.getStartDatetime(), task.getEndDatetime(), task.getStatus(), task.getPriority(),
+                task.getVersion());
+    }
+}
@@ -0,0 +1,13 @@
+package se.jensen.yuki.taskmanager.dto;
+
+import se.jensen.yuki.taskmanager.model.TaskField;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A list response: the tasks and the fields to write for each of them, in {@link TaskField} order.
+ * Written as a JSON array by {@link se.jensen.yuki.taskmanager.web.TaskViewsHttpMessageConverter}.
+ */
+public record TaskViews(Set<TaskField> fields, List<TaskView> tasks) {
+}
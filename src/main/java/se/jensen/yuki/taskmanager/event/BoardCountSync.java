@@ -0,0 +1,39 @@
+package se.jensen.yuki.taskmanager.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import se.jensen.yuki.taskmanager.service.TaskService;
+
+/**
+ * Recounts the tasks per status every {@code taskmanager.events.recount-interval} (default 30s) while
+ * anyone is subscribed and sends the totals as a {@code counts} event. Board clients keep their column
+ * counts up to date from deltas, which only add up if every delta is applied exactly once; the recount
+ * puts them right whenever one was missed or applied twice.
+ */
+@Component
+public class BoardCountSync {
+    private static final Logger logger = LoggerFactory.getLogger(BoardCountSync.class);
+
+    private final TaskService taskService;
+    private final TaskEventHub taskEventHub;
+
+    public BoardCountSync(TaskService taskService, TaskEventHub taskEventHub) {
+        this.taskService = taskService;
+        this.taskEventHub = taskEventHub;
+    }
+
+    @Scheduled(fixedDelayString = "${taskmanager.events.recount-interval:PT30S}",
+            initialDelayString = "${taskmanager.events.recount-interval:PT30S}")
+    public void recount() {
+        if (taskEventHub.subscriberCount() == 0) {
+            return;
+        }
+        try {
+            taskEventHub.publishCounts(taskService.countByStatus());
+        } catch (RuntimeException e) {
+            logger.warn("Could not recount tasks for board clients, trying again next time", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package se.jensen.yuki.taskmanager.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@link se.jensen.yuki.taskmanager.reminder.DeadlineScheduler} when a task that is not
+ * done reaches one of its dates; {@code at} is that date. Published at least once: reminders fired
+ * shortly before a restart can be published again after it.
+ */
+public record DeadlineEvent(Kind kind, Long taskId, LocalDateTime at) {
+
+    public enum Kind {
+        /**
+         * The start date of a task that has not been started.
+         */
+        START,
+        /**
+         * {@code taskmanager.reminders.due-soon} before the end date.
+         */
+        DUE_SOON,
+        /**
+         * The end date.
+         */
+        OVERDUE
+    }
+}
@@ -0,0 +1,39 @@
+package se.jensen.yuki.taskmanager.event;
+
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+
+/**
+ * Published by {@link se.jensen.yuki.taskmanager.service.TaskService} after a task was written.
+ * {@code task} is null for deletions and {@code previousStatus} is null when it is not known.
+ * {@code revision} is the task's revision after the write, or null when it is not known.
+ */
+public record TaskChangedEvent(Type type, Long taskId, Task task, TaskStatus previousStatus, Long revision) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    public static TaskChangedEvent created(Task task) {
+        return new TaskChangedEvent(Type.CREATED, task.getId(), task, null, task.getRevision());
+    }
+
+    public static TaskChangedEvent updated(Task task, TaskStatus previousStatus) {
+        return new TaskChangedEvent(Type.UPDATED, task.getId(), task, previousStatus, task.getRevision());
+    }
+
+    public static TaskChangedEvent statusChanged(Task task, TaskStatus previousStatus) {
+        return new TaskChangedEvent(Type.STATUS_CHANGED, task.getId(), task, previousStatus, task.getRevision());
+    }
+
+    public static TaskChangedEvent deleted(Long taskId, TaskStatus previousStatus) {
+        return deleted(taskId, previousStatus, null);
+    }
+
+    public static TaskChangedEvent deleted(Long taskId, TaskStatus previousStatus, Long revision) {
+        return new TaskChangedEvent(Type.DELETED, taskId, null, previousStatus, revision);
+    }
+}
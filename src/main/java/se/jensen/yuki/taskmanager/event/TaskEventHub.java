@@ -0,0 +1,311 @@
+package se.jensen.yuki.taskmanager.event;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import se.jensen.yuki.taskmanager.dto.TaskDelta;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans task changes out to server-sent event subscribers, as {@code task} events, deadline
+ * reminders, as {@code deadline} events, and recounted status totals, as {@code counts} events.
+ * <p>
+ * Every change is serialized once and gets a sequential event id on a single dispatcher thread,
+ * which keeps the order of events the same for every subscriber. The dispatcher only queues events;
+ * each subscriber has a bounded queue of {@code taskmanager.events.queue-size} events, drained by a
+ * virtual thread that only exists while the queue isn't empty. Idle subscribers thus hold no thread,
+ * and a client that stops reading only holds up its own events. When its queue overflows it gets a
+ * {@code reset} event in place of what it missed and is disconnected.
+ * <p>
+ * Event ids are {@code <epoch>-<sequence>}, the epoch being picked at random when the hub starts.
+ * The last {@code taskmanager.events.replay-size} events are kept so a client reconnecting with
+ * {@code Last-Event-ID} only receives what it missed. If it missed more than that, or its id comes
+ * from another epoch (before a restart, or from another instance), it gets a {@code reset} event and
+ * should reload the board.
+ * <p>
+ * Writes to the same task can commit in one order and reach the hub in the other. A change with an
+ * older revision than the last one sent for its task is dropped, so a late status change can't bring
+ * a deleted card back; the last revisions of the {@code replay-size} most recently changed tasks are
+ * remembered for this.
+ */
+@Component
+public class TaskEventHub {
+    public static final String TASK_EVENT = "task";
+    public static final String DEADLINE_EVENT = "deadline";
+    public static final String COUNTS_EVENT = "counts";
+    public static final String RESET_EVENT = "reset";
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventHub.class);
+    private static final long EMITTER_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+    private static final long HEARTBEAT_SECONDS = 25;
+    private static final SentEvent HEARTBEAT = new SentEvent(0, null, null, false);
+
+    private final ObjectMapper objectMapper;
+    private final int replaySize;
+    private final int queueSize;
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Deque<SentEvent> replayBuffer = new ArrayDeque<>();
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-event-hub");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("task-event-sender-", 0).factory());
+    // Only touched on the dispatcher thread.
+    private final Map<Long, Long> lastRevisions;
+    private long lastEventId;
+
+    public TaskEventHub(ObjectMapper objectMapper, @Value("${taskmanager.events.replay-size:1024}") int replaySize,
+                        @Value("${taskmanager.events.queue-size:1024}") int queueSize) {
+        this.objectMapper = objectMapper;
+        this.replaySize = replaySize;
+        this.queueSize = queueSize;
+        this.lastRevisions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > replaySize;
+            }
+        };
+        dispatcher.scheduleAtFixedRate(this::heartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Subscribes a client that has seen the events up to {@code lastSeenEventId}, or none if null.
+     */
+    public SseEmitter subscribe(String lastSeenEventId) {
+        return subscribe(new SseEmitter(EMITTER_TIMEOUT_MILLIS), lastSeenEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, String lastSeenEventId) {
+        Subscriber subscriber = new Subscriber(emitter, queueSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        dispatcher.execute(() -> {
+            if (lastSeenEventId != null && !replay(subscriber, lastSeenEventId)) {
+                return;
+            }
+            subscribers.add(subscriber);
+        });
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        // Serialize on the caller's thread, before anyone can touch the entity again.
+        String data = objectMapper.writeValueAsString(TaskDelta.from(event));
+        dispatcher.execute(() -> {
+            if (isOutdated(event.taskId(), event.revision())) {
+                logger.debug("Dropping change of task {} at revision {}, a later one was sent", event.taskId(),
+                        event.revision());
+                return;
+            }
+            broadcast(TASK_EVENT, data);
+        });
+    }
+
+    @EventListener
+    public void onDeadline(DeadlineEvent event) {
+        String data = objectMapper.writeValueAsString(event);
+        dispatcher.execute(() -> broadcast(DEADLINE_EVENT, data));
+    }
+
+    /**
+     * Sends the number of tasks per status, which replaces the totals clients keep from deltas.
+     */
+    public void publishCounts(Map<TaskStatus, Long> counts) {
+        String data = objectMapper.writeValueAsString(counts);
+        dispatcher.execute(() -> broadcast(COUNTS_EVENT, data));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private void broadcast(String name, String data) {
+        SentEvent event = new SentEvent(++lastEventId, name, data, false);
+        replayBuffer.addLast(event);
+        if (replayBuffer.size() > replaySize) {
+            replayBuffer.removeFirst();
+        }
+        for (Subscriber subscriber : subscribers) {
+            deliver(subscriber, event);
+        }
+    }
+
+    /**
+     * True if a change with a later revision has been sent for the task; remembers {@code revision}
+     * otherwise. Changes without a revision are never outdated.
+     */
+    private boolean isOutdated(Long taskId, Long revision) {
+        if (taskId == null || revision == null) {
+            return false;
+        }
+        Long last = lastRevisions.get(taskId);
+        if (last != null && last > revision) {
+            return true;
+        }
+        lastRevisions.put(taskId, revision);
+        return false;
+    }
+
+    /**
+     * Queues the buffered events after {@code lastSeenEventId}, or a reset if they can't be told
+     * apart. Returns false if the subscriber was dropped.
+     */
+    private boolean replay(Subscriber subscriber, String lastSeenEventId) {
+        long lastSeen = sequenceOf(lastSeenEventId);
+        SentEvent oldest = replayBuffer.peekFirst();
+        long oldestAvailable = oldest != null ? oldest.id() : lastEventId + 1;
+        if (lastSeen < 0 || lastSeen + 1 < oldestAvailable || lastSeen > lastEventId) {
+            // Missed more than we kept, or the id is from another epoch.
+            return deliver(subscriber, new SentEvent(lastEventId, RESET_EVENT, "", false));
+        }
+        for (SentEvent event : replayBuffer) {
+            if (event.id() > lastSeen && !deliver(subscriber, event)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The sequence of an event id of this epoch, or -1 for any other id.
+     */
+    private long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(eventId.substring(0, separator).trim())) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Queues the event for the subscriber. Returns false if its queue was full, in which case it is
+     * dropped and gets a last reset event instead.
+     */
+    private boolean deliver(Subscriber subscriber, SentEvent event) {
+        if (subscriber.queue.offer(event)) {
+            subscriber.drain();
+            return true;
+        }
+        logger.debug("Dropping event subscriber that is {} events behind", queueSize);
+        subscribers.remove(subscriber);
+        subscriber.queue.clear();
+        subscriber.queue.offer(new SentEvent(lastEventId, RESET_EVENT, "", true));
+        subscriber.drain();
+        return false;
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            // A subscriber with queued events is about to get data anyway.
+            if (subscriber.queue.isEmpty()) {
+                deliver(subscriber, HEARTBEAT);
+            }
+        }
+    }
+
+    /**
+     * An event as queued for subscribers; a null name is a heartbeat, and {@code last} closes the
+     * stream after it is sent.
+     */
+    private record SentEvent(long id, String name, String data, boolean last) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SentEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, int queueSize) {
+            this.emitter = emitter;
+            this.queue = new LinkedBlockingQueue<>(queueSize);
+        }
+
+        /**
+         * Starts a sender for the queued events unless one is running.
+         */
+        void drain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::sendQueued);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down.
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void sendQueued() {
+            do {
+                for (SentEvent event = queue.poll(); event != null; event = queue.poll()) {
+                    if (!send(event)) {
+                        return;
+                    }
+                }
+                draining.set(false);
+                // An event queued after the last poll but before the flag was cleared has no sender yet.
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private boolean send(SentEvent event) {
+            try {
+                if (event.name() == null) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    emitter.send(SseEmitter.event().id(epoch + "-" + event.id()).name(event.name()).data(event.data()));
+                }
+                if (event.last()) {
+                    emitter.complete();
+                    return false;
+                }
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dropping event subscriber: {}", e.getMessage());
+                subscribers.remove(this);
+                queue.clear();
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
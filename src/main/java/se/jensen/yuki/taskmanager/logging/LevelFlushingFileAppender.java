@@ -0,0 +1,40 @@
+package se.jensen.yuki.taskmanager.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Rolling file appender that writes through a buffer ({@code immediateFlush=false}) but still flushes
+ * right after every event at {@code flushLevel} (WARN by default) or above. A quiet instance would
+ * otherwise keep its last errors in memory, and lose them if the process is killed.
+ */
+public class LevelFlushingFileAppender extends RollingFileAppender<ILoggingEvent> {
+    private Level flushLevel = Level.WARN;
+
+    @Override
+    protected void subAppend(ILoggingEvent event) {
+        super.subAppend(event);
+        if (isImmediateFlush() || !event.getLevel().isGreaterOrEqual(flushLevel)) {
+            return;
+        }
+        streamWriteLock.lock();
+        try {
+            OutputStream outputStream = getOutputStream();
+            if (outputStream != null) {
+                outputStream.flush();
+            }
+        } catch (IOException e) {
+            addError("Could not flush " + getFile(), e);
+        } finally {
+            streamWriteLock.unlock();
+        }
+    }
+
+    public void setFlushLevel(String flushLevel) {
+        this.flushLevel = Level.toLevel(flushLevel, Level.WARN);
+    }
+}
@@ -0,0 +1,82 @@
+package se.jensen.yuki.taskmanager.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets at most {@code maxPerSecond} events per second through for loggers starting with
+ * {@code loggerName} and drops the rest, so a burst of slow queries can't flood the log.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    private String loggerName;
+    private int maxPerSecond = 10;
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger passed = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final LongSupplier nanoTime;
+
+    public SamplingTurboFilter() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * A filter that reads the time from {@code nanoTime} instead of {@link System#nanoTime()}.
+     */
+    SamplingTurboFilter(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // A null format is an isXxxEnabled() check, not an event.
+        if (!isStarted() || format == null || !logger.getName().startsWith(loggerName)) {
+            return FilterReply.NEUTRAL;
+        }
+        long second = nanoTime.getAsLong() / 1_000_000_000L;
+        long current = currentSecond.get();
+        if (second != current && currentSecond.compareAndSet(current, second)) {
+            passed.set(0);
+        }
+        if (passed.incrementAndGet() <= maxPerSecond) {
+            return FilterReply.NEUTRAL;
+        }
+        dropped.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (loggerName == null || loggerName.isEmpty()) {
+            addError("No loggerName set for SamplingTurboFilter");
+            return;
+        }
+        super.start();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+}
@@ -0,0 +1,42 @@
+package se.jensen.yuki.taskmanager.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Records how many tasks the search methods of {@link se.jensen.yuki.taskmanager.service.TaskService}
+ * return, as the {@code taskmanager.results} distribution tagged with the method name.
+ * Runs outside the cache advice so cache hits are counted too, but after the interceptor that exposes
+ * the invocation, which the {@link JoinPoint} argument needs.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ResultSizeAspect {
+    public static final String METRIC_NAME = "taskmanager.results";
+
+    private final MeterRegistry registry;
+
+    public ResultSizeAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @AfterReturning(pointcut = "execution(java.util.List se.jensen.yuki.taskmanager.service.TaskService.find*By*(..))",
+            returning = "result")
+    public void recordResultSize(JoinPoint joinPoint, Collection<?> result) {
+        DistributionSummary.builder(METRIC_NAME)
+                .description("Number of tasks returned by a search")
+                .baseUnit("tasks")
+                .tag("method", joinPoint.getSignature().getName())
+                .register(registry)
+                .record(result.size());
+    }
+}
@@ -1,14 +1,31 @@
 package se.jensen.yuki.taskmanager.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 
+// Deleted tasks stay in the table as tombstones for /tasks/changes; every other query skips them.
+// Second-level cached in the "task" region (sized in hibernate-jcache.conf); READ_WRITE soft-locks an
+// entry while a transaction is changing it, so other sessions never read a half-committed task.
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.CACHE_REGION)
+@SQLRestriction("deleted = false")
 public class Task {
+    public static final String CACHE_REGION = "task";
+    public static final int HIGHEST_PRIORITY = 1;
+    public static final int LOWEST_PRIORITY = 5;
+    public static final int DEFAULT_PRIORITY = 3;
+
+    // Sequence ids (pooled by 50) instead of IDENTITY so Hibernate can batch inserts.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -27,6 +44,27 @@ public class Task {
     @Enumerated(EnumType.STRING)
     private TaskStatus status = TaskStatus.NOT_STARTED;
 
+    // 1 (most urgent) to 5; /tasks/next lists open tasks by priority, then end date. Left null in
+    // request bodies, so a partial update without a priority keeps the current one, and set to
+    // DEFAULT_PRIORITY on persist, since Hibernate would otherwise insert an explicit NULL.
+    private Integer priority;
+
+    // Incremented by Hibernate on every update; used for optimistic locking and as the task's ETag.
+    @Version
+    private Long version;
+
+    // Position in the change feed: taken from the task_revision counter on every write, so clients
+    // can ask for everything after the last revision they saw.
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long revision;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime updatedDatetime;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private boolean deleted;
+
     public Task() {
     }
 
@@ -54,6 +92,38 @@ public class Task {
         this.startDatetime = other.startDatetime != null ? other.startDatetime : this.startDatetime;
         this.endDatetime = other.endDatetime != null ? other.endDatetime : this.endDatetime;
         this.status = other.status != null ? other.status : this.status;
+        this.priority = other.priority != null ? other.priority : this.priority;
+    }
+
+    /**
+     * True for {@link #HIGHEST_PRIORITY} to {@link #LOWEST_PRIORITY}, and for null, which keeps the
+     * current priority on update and means {@link #DEFAULT_PRIORITY} on create.
+     */
+    public static boolean isValidPriority(Integer priority) {
+        return priority == null || (priority >= HIGHEST_PRIORITY && priority <= LOWEST_PRIORITY);
+    }
+
+    @PrePersist
+    void defaultPriority() {
+        if (priority == null) {
+            priority = DEFAULT_PRIORITY;
+        }
+    }
+
+    /**
+     * Stamps a write with its revision and time.
+     */
+    public void touch(long revision, LocalDateTime updatedDatetime) {
+        this.revision = revision;
+        this.updatedDatetime = updatedDatetime;
+    }
+
+    /**
+     * Turns the task into a tombstone; it disappears from every query except the change feed.
+     */
+    public void markDeleted(long revision, LocalDateTime deletedDatetime) {
+        this.deleted = true;
+        touch(revision, deletedDatetime);
     }
 
     public Long getId() {
@@ -111,4 +181,32 @@ public class Task {
     public void setStatus(TaskStatus nextStatus) {
         status = nextStatus;
     }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public LocalDateTime getUpdatedDatetime() {
+        return updatedDatetime;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
 }
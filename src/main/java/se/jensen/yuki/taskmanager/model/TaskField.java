@@ -0,0 +1,62 @@
+package se.jensen.yuki.taskmanager.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Task columns a list endpoint can be asked for with {@code fields=}. The JSON name is the entity property.
+ */
+public enum TaskField {
+    ID("id", "id"),
+    TITLE("title", "title"),
+    DESCRIPTION("description", "description"),
+    CREATED_DATETIME("createdDatetime", "created_datetime"),
+    START_DATETIME("startDatetime", "start_datetime"),
+    END_DATETIME("endDatetime", "end_datetime"),
+    STATUS("status", "status"),
+    PRIORITY("priority", "priority"),
+    VERSION("version", "version");
+
+    public static final Set<TaskField> ALL = Collections.unmodifiableSet(EnumSet.allOf(TaskField.class));
+
+    private final String property;
+    private final String column;
+
+    TaskField(String property, String column) {
+        this.property = property;
+        this.column = column;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Parses a comma separated list of property names, e.g. {@code id,title,status}. The id is always
+     * included; null or blank means all fields. Throws {@link IllegalArgumentException} for unknown names.
+     */
+    public static Set<TaskField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<TaskField> selected = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            selected.add(fromProperty(name.trim()));
+        }
+        return Collections.unmodifiableSet(selected);
+    }
+
+    private static TaskField fromProperty(String property) {
+        for (TaskField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task field: " + property);
+    }
+}
@@ -0,0 +1,25 @@
+package se.jensen.yuki.taskmanager.model;
+
+/**
+ * File formats for exporting and importing tasks.
+ */
+public enum TaskFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    TaskFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
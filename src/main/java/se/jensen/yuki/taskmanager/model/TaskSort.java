@@ -0,0 +1,25 @@
+package se.jensen.yuki.taskmanager.model;
+
+/**
+ * Sort orders supported by the keyset paginated task list.
+ * Every order is tie-broken by id, so the sort value and id of a task make a cursor.
+ */
+public enum TaskSort {
+    ID(TaskField.ID),
+    CREATED_DATETIME(TaskField.CREATED_DATETIME),
+    END_DATETIME(TaskField.END_DATETIME);
+
+    private final TaskField field;
+
+    TaskSort(TaskField field) {
+        this.field = field;
+    }
+
+    public TaskField getField() {
+        return field;
+    }
+
+    public String getProperty() {
+        return field.getProperty();
+    }
+}
@@ -0,0 +1,277 @@
+package se.jensen.yuki.taskmanager.reminder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.jensen.yuki.taskmanager.event.DeadlineEvent;
+import se.jensen.yuki.taskmanager.event.DeadlineEvent.Kind;
+import se.jensen.yuki.taskmanager.event.TaskChangedEvent;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import se.jensen.yuki.taskmanager.repository.TaskRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes a {@link DeadlineEvent} when a task that is not done reaches its start date, comes within
+ * {@code taskmanager.reminders.due-soon} (default 1h, 0 turns it off) of its end date, and reaches its
+ * end date. Enabled with {@code taskmanager.reminders.enabled=true}, on one instance only: every
+ * instance with it enabled publishes every reminder.
+ * <p>
+ * Pending reminders are kept in a {@link TimingWheel} that is advanced every
+ * {@code taskmanager.reminders.tick} (default 1s). Only the next {@code taskmanager.reminders.window}
+ * (default 1h) is in memory: whenever less than half of it is left, the next slice is loaded with an
+ * index range query on the start and end dates. Writes reschedule their task's reminders from
+ * {@link TaskChangedEvent}s; a date moved into the past fires nothing.
+ * <p>
+ * The time up to which reminders have been published is saved in the database every few seconds. After
+ * a restart loading starts from there, so reminders that fell due while the application was down are
+ * published on the first tick, and reminders published after the last save are published again.
+ */
+@Component
+public class DeadlineScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineScheduler.class);
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final Duration SAVE_INTERVAL = Duration.ofSeconds(10);
+
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration tick;
+    private final Duration window;
+    private final Duration dueSoon;
+    private final Clock clock;
+
+    private volatile boolean started;
+    // Only used by the tick.
+    private LocalDateTime savedAt;
+
+    // Everything below is guarded by this.
+    private TimingWheel<Reminder> wheel;
+    private final Map<Long, Map<Kind, TimingWheel.Timeout<Reminder>>> timeouts = new HashMap<>();
+    // Reminders up to here are in the wheel or have been published.
+    private LocalDateTime loadedUntil;
+    // Tasks written while a slice is loaded outside the lock; they are rescheduled once it is in.
+    private Map<Long, Task> changedWhileLoading;
+
+    public DeadlineScheduler(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${taskmanager.reminders.enabled:false}") boolean enabled,
+                             @Value("${taskmanager.reminders.tick:PT1S}") Duration tick,
+                             @Value("${taskmanager.reminders.window:PT1H}") Duration window,
+                             @Value("${taskmanager.reminders.due-soon:PT1H}") Duration dueSoon) {
+        this(taskRepository, eventPublisher, transactionManager, enabled, tick, window, dueSoon,
+                Clock.systemDefaultZone());
+    }
+
+    DeadlineScheduler(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher,
+                      PlatformTransactionManager transactionManager, boolean enabled, Duration tick,
+                      Duration window, Duration dueSoon, Clock clock) {
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.tick = tick;
+        this.window = window;
+        this.dueSoon = dueSoon;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime firedUntil = taskRepository.findReminderWatermark();
+        if (firedUntil == null || firedUntil.isAfter(now)) {
+            firedUntil = now;
+        }
+        synchronized (this) {
+            wheel = new TimingWheel<>(tick.toMillis(), toMillis(firedUntil));
+            loadedUntil = firedUntil;
+        }
+        savedAt = now;
+        started = true;
+        logger.info("Deadline reminders start from {}", firedUntil);
+    }
+
+    /**
+     * Loads the next slice when it is due, then publishes the reminders that have fallen due.
+     */
+    @Scheduled(fixedDelayString = "${taskmanager.reminders.tick:PT1S}",
+            initialDelayString = "${taskmanager.reminders.tick:PT1S}")
+    public void tick() {
+        if (!started) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        load(now);
+
+        List<Reminder> due = new ArrayList<>();
+        LocalDateTime firedUntil;
+        synchronized (this) {
+            // Not past what is loaded, in case loading failed.
+            firedUntil = now.isAfter(loadedUntil) ? loadedUntil : now;
+            wheel.advance(toMillis(firedUntil), reminder -> {
+                Map<Kind, TimingWheel.Timeout<Reminder>> taskTimeouts = timeouts.get(reminder.taskId());
+                if (taskTimeouts != null) {
+                    taskTimeouts.remove(reminder.kind());
+                    if (taskTimeouts.isEmpty()) {
+                        timeouts.remove(reminder.taskId());
+                    }
+                }
+                due.add(reminder);
+            });
+        }
+        for (Reminder reminder : due) {
+            eventPublisher.publishEvent(new DeadlineEvent(reminder.kind(), reminder.taskId(), reminder.at()));
+        }
+        if (!due.isEmpty()) {
+            logger.debug("Published {} deadline reminders", due.size());
+        }
+        // Only after publishing, so a crash in between publishes them again rather than never.
+        if (Duration.between(savedAt, now).compareTo(SAVE_INTERVAL) >= 0) {
+            transactionTemplate.executeWithoutResult(status -> taskRepository.saveReminderWatermark(firedUntil));
+            savedAt = now;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTaskChanged(TaskChangedEvent event) {
+        if (wheel == null) {
+            return;
+        }
+        if (changedWhileLoading != null) {
+            changedWhileLoading.put(event.taskId(), event.task());
+        }
+        reschedule(event.taskId(), event.task());
+    }
+
+    /**
+     * Number of reminders in memory.
+     */
+    public synchronized int pendingCount() {
+        return wheel == null ? 0 : wheel.size();
+    }
+
+    /**
+     * Loads the reminders due up to a window after {@code now} when less than half of it is left. The
+     * query runs without holding the lock, so writers are not held up by it.
+     */
+    private void load(LocalDateTime now) {
+        LocalDateTime from;
+        LocalDateTime until = now.plus(window);
+        synchronized (this) {
+            if (Duration.between(now, loadedUntil).compareTo(window.dividedBy(2)) > 0) {
+                return;
+            }
+            from = loadedUntil;
+            changedWhileLoading = new HashMap<>();
+        }
+        List<Task> tasks = new ArrayList<>();
+        try {
+            List<Task> page;
+            long after = 0;
+            do {
+                page = taskRepository.findDeadlines(from, until, until.plus(dueSoon), after, LOAD_PAGE_SIZE);
+                tasks.addAll(page);
+                if (!page.isEmpty()) {
+                    after = page.getLast().getId();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedWhileLoading = null;
+            }
+            logger.error("Could not load deadline reminders after {}, trying again on the next tick", from, e);
+            return;
+        }
+
+        synchronized (this) {
+            for (Task task : tasks) {
+                if (!changedWhileLoading.containsKey(task.getId())) {
+                    schedule(task, from, until);
+                }
+            }
+            loadedUntil = until;
+            // These may have been read before they changed; their events win.
+            changedWhileLoading.forEach(this::reschedule);
+            changedWhileLoading = null;
+        }
+        logger.debug("Loaded deadline reminders of {} tasks up to {}", tasks.size(), until);
+    }
+
+    /**
+     * Replaces the reminders of a task after a write; {@code task} is null when it was deleted.
+     */
+    private void reschedule(Long taskId, Task task) {
+        Map<Kind, TimingWheel.Timeout<Reminder>> previous = timeouts.remove(taskId);
+        if (previous != null) {
+            previous.values().forEach(TimingWheel.Timeout::cancel);
+        }
+        if (task != null) {
+            schedule(task, toLocalDateTime(wheel.currentMillis()), loadedUntil);
+        }
+    }
+
+    /**
+     * Schedules the reminders of {@code task} that fall in {@code (from, until]}.
+     */
+    private void schedule(Task task, LocalDateTime from, LocalDateTime until) {
+        if (task.isDeleted() || task.getStatus() == TaskStatus.DONE) {
+            return;
+        }
+        if (task.getStatus() == TaskStatus.NOT_STARTED) {
+            schedule(task.getId(), Kind.START, task.getStartDatetime(), task.getStartDatetime(),
+                    from, until);
+        }
+        LocalDateTime end = task.getEndDatetime();
+        if (end != null && dueSoon.isPositive()) {
+            schedule(task.getId(), Kind.DUE_SOON, end, end.minus(dueSoon), from, until);
+        }
+        schedule(task.getId(), Kind.OVERDUE, end, end, from, until);
+    }
+
+    private void schedule(Long taskId, Kind kind, LocalDateTime at, LocalDateTime fireAt,
+                          LocalDateTime from, LocalDateTime until) {
+        if (fireAt == null || !fireAt.isAfter(from) || fireAt.isAfter(until)) {
+            return;
+        }
+        Map<Kind, TimingWheel.Timeout<Reminder>> taskTimeouts =
+                timeouts.computeIfAbsent(taskId, id -> new EnumMap<>(Kind.class));
+        TimingWheel.Timeout<Reminder> previous = taskTimeouts.put(kind,
+                wheel.schedule(new Reminder(kind, taskId, at), toMillis(fireAt)));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone());
+    }
+
+    private record Reminder(Kind kind, Long taskId, LocalDateTime at) {
+    }
+}
@@ -0,0 +1,222 @@
+package se.jensen.yuki.taskmanager.reminder;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: {@value #LEVELS} wheels of {@value #SLOTS} slots, where a slot of level n
+ * spans 64^n ticks. A timer goes into the lowest level at which its tick and the current tick only
+ * differ in that level's digit, so it is found when the wheel gets to that slot and then moves to a
+ * lower level, until it expires from level 0. Timers further away than the top level wait in an
+ * overflow list that is looked at each time the top level comes round.
+ * <p>
+ * Scheduling and cancelling are O(1), each slot being a doubly linked list of its timers. Advancing
+ * skips the ticks where nothing happens: it goes straight to the next tick that expires or moves down
+ * a slot, found by scanning at most {@value #SLOTS} slots per level. So it costs that scan per visited
+ * tick plus at most one move per level for every timer, however far the wheel moves. Not thread-safe.
+ */
+public final class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+
+    private final long tickMillis;
+    // Sentinels of the slot lists, level * SLOTS + slot.
+    private final Timeout<T>[] slots;
+    private final Timeout<T> overflow = new Timeout<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * A wheel whose ticks are {@code tickMillis} long, starting at {@code startMillis}.
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be a positive number of milliseconds.");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        this.slots = new Timeout[LEVELS * SLOTS];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Timeout<>();
+        }
+    }
+
+    /**
+     * Schedules {@code payload} to expire at the first {@link #advance} to {@code deadlineMillis} or later.
+     * A deadline that has already passed expires at the next tick.
+     */
+    public Timeout<T> schedule(T payload, long deadlineMillis) {
+        long tick = Math.max(Math.floorDiv(deadlineMillis, tickMillis), currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(this, payload, deadlineMillis, tick);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis}, handing every timer that expires to {@code expired} in
+     * deadline order (by tick). {@code expired} may schedule and cancel timers.
+     */
+    public void advance(long nowMillis, Consumer<? super T> expired) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            long nextTick = size == 0 ? targetTick + 1 : nextTick();
+            if (nextTick > targetTick) {
+                currentTick = targetTick;
+                return;
+            }
+            currentTick = nextTick;
+            cascade();
+            Timeout<T> head = slots[(int) (currentTick & SLOT_MASK)];
+            for (Timeout<T> timeout = head.next; timeout != head; timeout = head.next) {
+                timeout.unlink();
+                size--;
+                expired.accept(timeout.payload);
+            }
+        }
+    }
+
+    /**
+     * Number of timers that have neither expired nor been cancelled.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The time the wheel has advanced to, rounded down to a tick.
+     */
+    public long currentMillis() {
+        return currentTick * tickMillis;
+    }
+
+    /**
+     * The first tick after the current one at which a slot is due, or the next turn of the top level
+     * for the overflow list. Slots at or before the current digit of their level are always empty, and
+     * a lower level's slots all come before the next slot of a higher level.
+     */
+    private long nextTick() {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            long block = currentTick >> (shift + SLOT_BITS) << (shift + SLOT_BITS);
+            for (int slot = digit(currentTick, level) + 1; slot < SLOTS; slot++) {
+                Timeout<T> head = slots[level * SLOTS + slot];
+                if (head.next != head) {
+                    return block + ((long) slot << shift);
+                }
+            }
+        }
+        return ((currentTick >> (SLOT_BITS * LEVELS)) + 1) << (SLOT_BITS * LEVELS);
+    }
+
+    /**
+     * Moves the timers of the slots that the current tick has just reached down a level, top level first
+     * so that timers moving down more than one level are moved again.
+     */
+    private void cascade() {
+        int level = 1;
+        while (level < LEVELS && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+            level++;
+        }
+        if (level == LEVELS && (currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+            replace(overflow);
+        }
+        for (int lower = level - 1; lower >= 1; lower--) {
+            replace(slots[lower * SLOTS + digit(currentTick, lower)]);
+        }
+    }
+
+    private void replace(Timeout<T> head) {
+        Timeout<T> timeout = head.next;
+        head.next = head;
+        head.prev = head;
+        while (timeout != head) {
+            Timeout<T> next = timeout.next;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if (timeout.tick >> shift == currentTick >> shift) {
+                slots[level * SLOTS + digit(timeout.tick, level)].append(timeout);
+                return;
+            }
+        }
+        overflow.append(timeout);
+    }
+
+    private static int digit(long tick, int level) {
+        return (int) ((tick >> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    /**
+     * A scheduled timer. Also the sentinel of a slot list, then without a wheel.
+     */
+    public static final class Timeout<T> {
+        private final TimingWheel<T> wheel;
+        private final T payload;
+        private final long deadlineMillis;
+        private final long tick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout() {
+            this(null, null, 0, 0);
+            prev = this;
+            next = this;
+        }
+
+        private Timeout(TimingWheel<T> wheel, T payload, long deadlineMillis, long tick) {
+            this.wheel = wheel;
+            this.payload = payload;
+            this.deadlineMillis = deadlineMillis;
+            this.tick = tick;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        public long deadlineMillis() {
+            return deadlineMillis;
+        }
+
+        /**
+         * True until the timer expires or is cancelled.
+         */
+        public boolean isPending() {
+            return next != null;
+        }
+
+        /**
+         * Removes the timer from its wheel. Returns false if it had already expired or been cancelled.
+         */
+        public boolean cancel() {
+            if (next == null) {
+                return false;
+            }
+            unlink();
+            wheel.size--;
+            return true;
+        }
+
+        private void append(Timeout<T> timeout) {
+            timeout.prev = prev;
+            timeout.next = this;
+            prev.next = timeout;
+            prev = timeout;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
@@ -1,12 +1,132 @@
 package se.jensen.yuki.taskmanager.repository;
 
+import se.jensen.yuki.taskmanager.dto.BoardSummary;
+import se.jensen.yuki.taskmanager.dto.TaskCursor;
+import se.jensen.yuki.taskmanager.dto.TaskListVersion;
+import se.jensen.yuki.taskmanager.dto.TaskView;
 import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskField;
+import se.jensen.yuki.taskmanager.model.TaskSort;
 import se.jensen.yuki.taskmanager.model.TaskStatus;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface TaskRepositoryCustom {
     List<Task> findByKeyword(String keyword);
 
+    /**
+     * Returns tasks whose title or description contains {@code keyword}, best match first.
+     */
+    List<Task> findByKeyword(String keyword, int offset, int limit);
+
+    /**
+     * Same search as {@link #findByKeyword(String, int, int)}, selecting only {@code fields}.
+     */
+    List<TaskView> findViewsByKeyword(String keyword, int offset, int limit, Set<TaskField> fields);
+
     List<Task> findByStatus(TaskStatus status);
+
+    /**
+     * Returns at most {@code limit} tasks that come after the cursor {@code after} in the given sort
+     * order. {@code status} and {@code after} are optional.
+     */
+    List<Task> findPage(TaskStatus status, TaskSort sort, TaskCursor after, int limit);
+
+    /**
+     * Same page as {@link #findPage}, selecting only {@code fields} and the field of {@code sort} into
+     * read-only views.
+     */
+    List<TaskView> findViews(TaskStatus status, TaskSort sort, TaskCursor after, int limit, Set<TaskField> fields);
+
+    /**
+     * Views of the tasks with the given ids, in no particular order.
+     */
+    List<TaskView> findViewsById(Collection<Long> ids, Set<TaskField> fields);
+
+    /**
+     * Streams tasks through a forward-only cursor. Entities are read-only and detached
+     * as they are emitted, so the caller must consume the stream inside a transaction and close it.
+     */
+    Stream<Task> streamAll(TaskStatus status);
+
+    /**
+     * Counts the tasks per status and fetches the first {@code limit} cards of each status in one query.
+     */
+    BoardSummary findBoard(int limit);
+
+    /**
+     * Tasks that are not done and whose end date is before {@code now}, most overdue first.
+     */
+    List<Task> findOverdue(LocalDateTime now, int limit);
+
+    /**
+     * Tasks that are not done and whose end date is in {@code [now, until)}, soonest first.
+     */
+    List<Task> findDueWithin(LocalDateTime now, LocalDateTime until, int limit);
+
+    /**
+     * Tasks that are not done with a start date in {@code (from, startUntil]} or an end date in
+     * {@code (from, endUntil]}, the ids after {@code after} in id order. Loads the deadline reminders.
+     */
+    List<Task> findDeadlines(LocalDateTime from, LocalDateTime startUntil, LocalDateTime endUntil, long after,
+                             int limit);
+
+    /**
+     * The time up to which deadline reminders have been published, or null if they never were.
+     */
+    LocalDateTime findReminderWatermark();
+
+    /**
+     * Stores the time up to which deadline reminders have been published. Must run inside a transaction.
+     */
+    void saveReminderWatermark(LocalDateTime firedUntil);
+
+    /**
+     * The first {@code limit} tasks that are not done, by priority, then end date (nulls last), then id.
+     */
+    List<TaskView> findNext(int limit);
+
+    /**
+     * Number of tasks per status, 0 for statuses without tasks. Bypasses the query cache.
+     */
+    Map<TaskStatus, Long> countByStatus();
+
+    /**
+     * Count, highest id and sum of versions of all tasks, or of the tasks with {@code status} if given.
+     */
+    TaskListVersion findListVersion(TaskStatus status);
+
+    /**
+     * Tasks, tombstones included, written after revision {@code since}, in revision order.
+     */
+    List<Task> findChangesSince(long since, int limit);
+
+    /**
+     * The last revision handed out by {@link #reserveRevisions}. Every write raises it, so it never
+     * comes back once the tasks have changed.
+     */
+    long findLatestRevision();
+
+    /**
+     * Reserves {@code count} consecutive revisions and returns the first. Must run inside the writing
+     * transaction: the counter row stays locked until it ends, so revisions become visible in order.
+     */
+    long reserveRevisions(int count);
+
+    /**
+     * Writes the status, revision and updated time of {@code tasks} as one JDBC batch of narrow
+     * {@code UPDATE task SET status = ...} statements, incrementing the version. A row is only updated
+     * if it is not deleted and still has the task's version. Returns the update count per task.
+     */
+    int[] updateStatuses(List<Task> tasks);
+
+    /**
+     * Sends pending inserts/updates as JDBC batches and empties the persistence context.
+     */
+    void flushAndClear();
 }
@@ -1,37 +1,603 @@
 package se.jensen.yuki.taskmanager.repository;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.jensen.yuki.taskmanager.dto.BoardSummary;
+import se.jensen.yuki.taskmanager.dto.TaskCard;
+import se.jensen.yuki.taskmanager.dto.TaskCursor;
+import se.jensen.yuki.taskmanager.dto.TaskListVersion;
+import se.jensen.yuki.taskmanager.dto.TaskView;
 import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskField;
+import se.jensen.yuki.taskmanager.model.TaskSort;
 import se.jensen.yuki.taskmanager.model.TaskStatus;
 
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
+@Timed("taskmanager.repository")
 public class TaskRepositoryImpl implements TaskRepositoryCustom {
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Ranked substring search on PostgreSQL. The LIKE predicates are answered by the pg_trgm GIN
+     * indexes on lower(title) and lower(description) (see db/migration/postgresql), and matches are
+     * ranked by trigram word similarity with title hits weighted double.
+     */
+    private static final String POSTGRES_KEYWORD_SQL = """
+            SELECT %s FROM task t
+            WHERE t.deleted = false
+            AND (lower(t.title) LIKE :pattern OR lower(t.description) LIKE :pattern)
+            ORDER BY GREATEST(2 * word_similarity(:keyword, lower(t.title)),
+                              word_similarity(:keyword, lower(coalesce(t.description, '')))) DESC,
+                     t.id
+            LIMIT :limit OFFSET :offset
+            """;
+
+    /**
+     * Per-status counts and the first cards of every column in a single scan. The window count gives
+     * the same numbers as a GROUP BY on status, but lets the cards come back in the same round trip.
+     */
+    private static final String BOARD_SQL = """
+            SELECT id, title, status, end_datetime, column_count FROM (
+                SELECT t.id, t.title, t.status, t.end_datetime,
+                       row_number() OVER (PARTITION BY t.status ORDER BY t.id) AS position,
+                       count(*) OVER (PARTITION BY t.status) AS column_count
+                FROM task t
+                WHERE t.deleted = false
+            ) board
+            WHERE position <= :limit
+            ORDER BY status, id
+            """;
+
+    /**
+     * Open tasks whose end date has passed, most overdue first. One range scan of
+     * idx_task_status_end_datetime per open status.
+     */
+    static final String OVERDUE_SQL = """
+            SELECT t.* FROM task t
+            WHERE t.status IN (:statuses)
+            AND t.end_datetime < :now
+            AND t.deleted = false
+            ORDER BY t.end_datetime, t.id
+            LIMIT :limit
+            """;
+
+    /**
+     * Open tasks whose end date falls in [now, until), soonest first. Uses the same index as {@link #OVERDUE_SQL}.
+     */
+    static final String DUE_WITHIN_SQL = """
+            SELECT t.* FROM task t
+            WHERE t.status IN (:statuses)
+            AND t.end_datetime >= :now
+            AND t.end_datetime < :until
+            AND t.deleted = false
+            ORDER BY t.end_datetime, t.id
+            LIMIT :limit
+            """;
+
+    /**
+     * Open tasks with a start or end date in the reminder window, in id pages. The OR of two ranges is
+     * answered by combining range scans of idx_task_status_start_datetime and idx_task_status_end_datetime.
+     */
+    static final String DEADLINES_SQL = """
+            SELECT t.* FROM task t
+            WHERE t.status IN (:statuses)
+            AND ((t.start_datetime > :from AND t.start_datetime <= :startUntil)
+                 OR (t.end_datetime > :from AND t.end_datetime <= :endUntil))
+            AND t.id > :after
+            AND t.deleted = false
+            ORDER BY t.id
+            LIMIT :limit
+            """;
+
+    /**
+     * Open tasks in "work on next" order. The status is compared with a literal, not a parameter, so
+     * PostgreSQL can prove the condition of the partial index idx_task_next and read just the first
+     * rows of it.
+     */
+    private static final String NEXT_JPQL = """
+            SELECT %s FROM Task t
+            WHERE t.status <> se.jensen.yuki.taskmanager.model.TaskStatus.DONE
+            ORDER BY t.priority ASC, t.endDatetime ASC NULLS LAST, t.id ASC
+            """;
+
+    /**
+     * Everything written after a revision, tombstones included (native SQL is not filtered by
+     * {@code @SQLRestriction}). A range scan of idx_task_revision.
+     */
+    static final String CHANGES_SQL = """
+            SELECT t.* FROM task t
+            WHERE t.revision > :since
+            ORDER BY t.revision
+            LIMIT :limit
+            """;
+
+    /**
+     * Status change from the write-behind buffer: only the columns that change, guarded by the version
+     * the task had when it was read.
+     */
+    private static final String UPDATE_STATUS_SQL = """
+            UPDATE task SET status = ?, version = version + 1, revision = ?, updated_datetime = ?
+            WHERE id = ? AND version = ? AND deleted = false
+            """;
+
+    private static final String REVISION_TABLE = "task_revision";
+    private static final String WATERMARK_TABLE = "reminder_watermark";
+
+    /**
+     * Query cache region for the JPQL reads below. Hibernate drops a cached result as soon as any
+     * write to the task table commits, so only the ids are kept here and the tasks themselves come
+     * from the {@link Task#CACHE_REGION} entity region.
+     */
+    static final String QUERY_CACHE_REGION = "task-queries";
+
     @PersistenceContext
     private EntityManager em;
 
+    // With replica routing, read-only transactions read from a replica that may be behind the primary.
+    @Value("${taskmanager.datasource.routing:false}")
+    private boolean replicaRouting;
+
+    private Boolean postgres;
+
     @Override
     public List<Task> findByStatus(TaskStatus status) {
         String jpql = "SELECT t FROM Task t WHERE t.status = :status";
 
-        return em.createQuery(jpql, Task.class)
+        return cacheable(em.createQuery(jpql, Task.class))
                 .setParameter("status", status)
                 .getResultList();
     }
 
     @Override
     public List<Task> findByKeyword(String keyword) {
+        return findByKeyword(keyword, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> findByKeyword(String keyword, int offset, int limit) {
+        return keywordQuery("t.*", "t", Task.class, keyword, offset, limit);
+    }
+
+    @Override
+    public List<TaskView> findViewsByKeyword(String keyword, int offset, int limit, Set<TaskField> fields) {
+        return toViews(fields, keywordQuery(sqlSelect(fields), jpqlSelect(fields), Tuple.class, keyword, offset, limit));
+    }
+
+    @Override
+    public List<Task> findPage(TaskStatus status, TaskSort sort, TaskCursor after, int limit) {
+        return pageQuery("t", Task.class, status, sort, after, limit).getResultList();
+    }
+
+    @Override
+    public List<TaskView> findViews(TaskStatus status, TaskSort sort, TaskCursor after, int limit,
+                                    Set<TaskField> fields) {
+        // The sort field is always loaded so the caller can build the cursor of the next page.
+        Set<TaskField> loaded = fields;
+        if (!fields.contains(sort.getField())) {
+            loaded = EnumSet.copyOf(fields);
+            loaded.add(sort.getField());
+        }
+        return toViews(loaded, pageQuery(jpqlSelect(loaded), Tuple.class, status, sort, after, limit).getResultList());
+    }
+
+    @Override
+    public List<TaskView> findViewsById(Collection<Long> ids, Set<TaskField> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return toViews(fields, cacheable(em.createQuery(
+                        "SELECT " + jpqlSelect(fields) + " FROM Task t WHERE t.id IN :ids", Tuple.class))
+                .setParameter("ids", ids)
+                .getResultList());
+    }
+
+    /**
+     * Runs the keyword search selecting {@code sqlSelect} on PostgreSQL and {@code jpqlSelect} elsewhere.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> keywordQuery(String sqlSelect, String jpqlSelect, Class<T> resultType,
+                                     String keyword, int offset, int limit) {
+        String normalized = keyword.toLowerCase(Locale.ROOT);
+        String pattern = "%" + escapeLike(normalized) + "%";
+        if (isPostgres()) {
+            return em.createNativeQuery(POSTGRES_KEYWORD_SQL.formatted(sqlSelect), resultType)
+                    .setParameter("pattern", pattern)
+                    .setParameter("keyword", normalized)
+                    .setParameter("limit", limit)
+                    .setParameter("offset", offset)
+                    .getResultList();
+        }
+
         String jpql = """
-                SELECT t FROM Task t
-                WHERE LOWER(t.title) LIKE LOWER(:keyword)
-                OR LOWER(t.description) LIKE LOWER(:keyword)
-                """;
-        String pattern = "%" + keyword + "%";
-        return em.createQuery(jpql, Task.class)
+                SELECT %s FROM Task t
+                WHERE LOWER(t.title) LIKE :keyword ESCAPE '\\'
+                OR LOWER(t.description) LIKE :keyword ESCAPE '\\'
+                ORDER BY CASE WHEN LOWER(t.title) LIKE :keyword ESCAPE '\\' THEN 0 ELSE 1 END, t.id
+                """.formatted(jpqlSelect);
+        return cacheable(em.createQuery(jpql, resultType))
                 .setParameter("keyword", pattern)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
                 .getResultList();
     }
+
+    private <T> TypedQuery<T> pageQuery(String select, Class<T> resultType, TaskStatus status, TaskSort sort,
+                                        TaskCursor after, int limit) {
+        String column = "t." + sort.getProperty();
+        StringBuilder jpql = new StringBuilder("SELECT " + select + " FROM Task t WHERE 1 = 1");
+        if (status != null) {
+            jpql.append(" AND t.status = :status");
+        }
+
+        // Keyset condition: continue strictly after the cursor's (value, id) in (column, id) order, nulls
+        // last. The cursor carries the value, so the task it was taken from doesn't have to exist anymore.
+        Object anchor = null;
+        if (after != null) {
+            if (sort == TaskSort.ID) {
+                jpql.append(" AND t.id > :after");
+            } else {
+                anchor = after.value();
+                if (anchor == null) {
+                    jpql.append(" AND ").append(column).append(" IS NULL AND t.id > :after");
+                } else {
+                    jpql.append(" AND (").append(column).append(" > :anchor")
+                            .append(" OR (").append(column).append(" = :anchor AND t.id > :after)")
+                            .append(" OR ").append(column).append(" IS NULL)");
+                }
+            }
+        }
+
+        if (sort == TaskSort.ID) {
+            jpql.append(" ORDER BY t.id ASC");
+        } else {
+            jpql.append(" ORDER BY ").append(column).append(" ASC NULLS LAST, t.id ASC");
+        }
+
+        TypedQuery<T> query = cacheable(em.createQuery(jpql.toString(), resultType))
+                .setMaxResults(limit);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (after != null) {
+            query.setParameter("after", after.id());
+        }
+        if (anchor != null) {
+            query.setParameter("anchor", anchor);
+        }
+        return query;
+    }
+
+    @Override
+    public Stream<Task> streamAll(TaskStatus status) {
+        String jpql = status == null
+                ? "SELECT t FROM Task t ORDER BY t.id"
+                : "SELECT t FROM Task t WHERE t.status = :status ORDER BY t.id";
+
+        TypedQuery<Task> query = em.createQuery(jpql, Task.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                // An export reads every row once; putting them all in the second-level cache would only
+                // push out the tasks that are read often.
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        // Detach every row once it has been handed out so the persistence context never grows.
+        return query.getResultStream()
+                .map(task -> {
+                    em.detach(task);
+                    return task;
+                });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public BoardSummary findBoard(int limit) {
+        List<Object[]> rows = em.createNativeQuery(BOARD_SQL)
+                .setParameter("limit", limit)
+                .getResultList();
+
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        Map<TaskStatus, List<TaskCard>> columns = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, 0L);
+            columns.put(status, new ArrayList<>());
+        }
+        for (Object[] row : rows) {
+            if (row[2] == null) {
+                continue;
+            }
+            TaskStatus status = TaskStatus.valueOf((String) row[2]);
+            columns.get(status).add(new TaskCard(((Number) row[0]).longValue(), (String) row[1], status,
+                    toLocalDateTime(row[3])));
+            counts.put(status, ((Number) row[4]).longValue());
+        }
+        return new BoardSummary(counts, columns);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Task> findOverdue(LocalDateTime now, int limit) {
+        return em.createNativeQuery(OVERDUE_SQL, Task.class)
+                .setParameter("statuses", openStatuses())
+                .setParameter("now", now)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Task> findDueWithin(LocalDateTime now, LocalDateTime until, int limit) {
+        return em.createNativeQuery(DUE_WITHIN_SQL, Task.class)
+                .setParameter("statuses", openStatuses())
+                .setParameter("now", now)
+                .setParameter("until", until)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Task> findDeadlines(LocalDateTime from, LocalDateTime startUntil, LocalDateTime endUntil, long after,
+                                    int limit) {
+        return em.createNativeQuery(DEADLINES_SQL, Task.class)
+                .setParameter("statuses", openStatuses())
+                .setParameter("from", from)
+                .setParameter("startUntil", startUntil)
+                .setParameter("endUntil", endUntil)
+                .setParameter("after", after)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    @Override
+    public LocalDateTime findReminderWatermark() {
+        NativeQuery<?> select = em.createNativeQuery("SELECT fired_until FROM reminder_watermark")
+                .unwrap(NativeQuery.class);
+        List<?> rows = select.addSynchronizedQuerySpace(WATERMARK_TABLE).getResultList();
+        return rows.isEmpty() ? null : toLocalDateTime(rows.getFirst());
+    }
+
+    @Override
+    public void saveReminderWatermark(LocalDateTime firedUntil) {
+        // Same reason as in reserveRevisions for declaring the table.
+        NativeQuery<?> update = em.createNativeQuery("UPDATE reminder_watermark SET fired_until = :firedUntil")
+                .unwrap(NativeQuery.class);
+        int updated = update.addSynchronizedQuerySpace(WATERMARK_TABLE)
+                .setParameter("firedUntil", firedUntil)
+                .executeUpdate();
+        if (updated == 0) {
+            NativeQuery<?> insert = em.createNativeQuery(
+                            "INSERT INTO reminder_watermark (fired_until) VALUES (:firedUntil)")
+                    .unwrap(NativeQuery.class);
+            insert.addSynchronizedQuerySpace(WATERMARK_TABLE)
+                    .setParameter("firedUntil", firedUntil)
+                    .executeUpdate();
+        }
+    }
+
+    @Override
+    public List<TaskView> findNext(int limit) {
+        return toViews(TaskField.ALL, cacheable(em.createQuery(NEXT_JPQL.formatted(jpqlSelect(TaskField.ALL)),
+                        Tuple.class))
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    @Override
+    public Map<TaskStatus, Long> countByStatus() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, 0L);
+        }
+        em.createQuery("SELECT t.status, count(t) FROM Task t GROUP BY t.status", Object[].class)
+                .getResultList()
+                .forEach(row -> counts.put((TaskStatus) row[0], ((Number) row[1]).longValue()));
+        return counts;
+    }
+
+    @Override
+    public TaskListVersion findListVersion(TaskStatus status) {
+        String jpql = "SELECT count(t), coalesce(max(t.id), 0L), coalesce(sum(t.version), 0L) FROM Task t"
+                + (status == null ? "" : " WHERE t.status = :status");
+
+        TypedQuery<Object[]> query = cacheable(em.createQuery(jpql, Object[].class));
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        Object[] row = query.getSingleResult();
+        return new TaskListVersion(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                ((Number) row[2]).longValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Task> findChangesSince(long since, int limit) {
+        return em.createNativeQuery(CHANGES_SQL, Task.class)
+                .setParameter("since", since)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    @Override
+    public long findLatestRevision() {
+        NativeQuery<?> select = em.createNativeQuery("SELECT revision FROM task_revision")
+                .unwrap(NativeQuery.class);
+        return ((Number) select.addSynchronizedQuerySpace(REVISION_TABLE).getSingleResult()).longValue();
+    }
+
+    @Override
+    public long reserveRevisions(int count) {
+        // Declaring the table keeps Hibernate from flushing the session and evicting every cache region
+        // before a native statement it otherwise knows nothing about.
+        NativeQuery<?> increment = em.createNativeQuery("UPDATE task_revision SET revision = revision + :count")
+                .unwrap(NativeQuery.class);
+        increment.addSynchronizedQuerySpace(REVISION_TABLE)
+                .setParameter("count", count)
+                .executeUpdate();
+        return findLatestRevision() - count + 1;
+    }
+
+    @Override
+    public int[] updateStatuses(List<Task> tasks) {
+        int[] counts = em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_STATUS_SQL)) {
+                for (Task task : tasks) {
+                    statement.setString(1, task.getStatus().name());
+                    statement.setLong(2, task.getRevision());
+                    statement.setTimestamp(3, Timestamp.valueOf(task.getUpdatedDatetime()));
+                    statement.setLong(4, task.getId());
+                    statement.setLong(5, task.getVersion());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+        // The statements bypass Hibernate, so drop the cached copies of these tasks and every cached
+        // query result now, and again after commit in case another session cached the old rows meanwhile.
+        List<Long> ids = tasks.stream().map(Task::getId).toList();
+        evict(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(ids);
+                }
+            });
+        }
+        return counts;
+    }
+
+    private void evict(List<Long> ids) {
+        Cache cache = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getCache();
+        ids.forEach(id -> cache.evictEntityData(Task.class, id));
+        cache.evictQueryRegion(QUERY_CACHE_REGION);
+    }
+
+    @Override
+    public void flushAndClear() {
+        em.flush();
+        em.clear();
+    }
+
+    /**
+     * Reads through the query cache and the {@link Task#CACHE_REGION} entity region. Reads from a replica
+     * only use what is cached and put nothing back: a result from a lagging replica would be cached after
+     * the write that made it stale had already invalidated the regions, and stay there until the next write.
+     */
+    private <T> TypedQuery<T> cacheable(TypedQuery<T> query) {
+        query.setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, QUERY_CACHE_REGION);
+        if (replicaRouting && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            query.setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.GET);
+        }
+        return query;
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        }
+        return postgres;
+    }
+
+    /**
+     * Status names of tasks that are not done. Native queries compare against the stored strings.
+     */
+    static List<String> openStatuses() {
+        return Arrays.stream(TaskStatus.values())
+                .filter(status -> status != TaskStatus.DONE)
+                .map(TaskStatus::name)
+                .toList();
+    }
+
+    private static String jpqlSelect(Set<TaskField> fields) {
+        return fields.stream()
+                .map(field -> "t." + field.getProperty())
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String sqlSelect(Set<TaskField> fields) {
+        return fields.stream()
+                .map(field -> "t." + field.getColumn())
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Maps rows selected with {@link #jpqlSelect} or {@link #sqlSelect}; native queries return plain
+     * strings and timestamps where JPQL returns enums and LocalDateTime.
+     */
+    private static List<TaskView> toViews(Set<TaskField> fields, List<Tuple> rows) {
+        List<TaskView> views = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Long id = null;
+            Long version = null;
+            String title = null;
+            String description = null;
+            LocalDateTime createdDatetime = null;
+            LocalDateTime startDatetime = null;
+            LocalDateTime endDatetime = null;
+            TaskStatus status = null;
+            Integer priority = null;
+            int i = 0;
+            for (TaskField field : fields) {
+                Object value = row.get(i++);
+                switch (field) {
+                    case ID -> id = value == null ? null : ((Number) value).longValue();
+                    case TITLE -> title = (String) value;
+                    case DESCRIPTION -> description = (String) value;
+                    case CREATED_DATETIME -> createdDatetime = toLocalDateTime(value);
+                    case START_DATETIME -> startDatetime = toLocalDateTime(value);
+                    case END_DATETIME -> endDatetime = toLocalDateTime(value);
+                    case STATUS -> status = value instanceof String name ? TaskStatus.valueOf(name) : (TaskStatus) value;
+                    case PRIORITY -> priority = value == null ? null : ((Number) value).intValue();
+                    case VERSION -> version = value == null ? null : ((Number) value).longValue();
+                }
+            }
+            views.add(new TaskView(id, title, description, createdDatetime, startDatetime, endDatetime,
+                    status, priority, version));
+        }
+        return views;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
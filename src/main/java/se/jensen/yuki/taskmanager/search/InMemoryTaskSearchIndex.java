@@ -0,0 +1,80 @@
+package se.jensen.yuki.taskmanager.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import se.jensen.yuki.taskmanager.dto.TaskCursor;
+import se.jensen.yuki.taskmanager.event.TaskChangedEvent;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskSort;
+import se.jensen.yuki.taskmanager.repository.TaskRepository;
+
+import java.util.List;
+
+/**
+ * Keyword search backed by an {@link InvertedIndex} for databases without trigram support (H2 / dev).
+ * Enabled with {@code taskmanager.search.in-memory=true}; the index is built when the application
+ * is ready and kept up to date from {@link TaskChangedEvent}s.
+ */
+@Component
+public class InMemoryTaskSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryTaskSearchIndex.class);
+    private static final int WARM_UP_PAGE_SIZE = 1000;
+
+    private final InvertedIndex index = new InvertedIndex();
+    private final TaskRepository taskRepository;
+    private final boolean enabled;
+    private volatile boolean ready;
+
+    public InMemoryTaskSearchIndex(TaskRepository taskRepository,
+                                   @Value("${taskmanager.search.in-memory:false}") boolean enabled) {
+        this.taskRepository = taskRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * True when searches should be answered by this index instead of the database.
+     */
+    public boolean isEnabled() {
+        return enabled && ready;
+    }
+
+    public List<Long> search(String keyword, int offset, int limit) {
+        return index.search(keyword, offset, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        TaskCursor after = null;
+        List<Task> page;
+        do {
+            page = taskRepository.findPage(null, TaskSort.ID, after, WARM_UP_PAGE_SIZE);
+            page.forEach(task -> index.put(task.getId(), task.getTitle(), task.getDescription()));
+            if (!page.isEmpty()) {
+                after = TaskCursor.of(page.get(page.size() - 1).getId());
+            }
+        } while (page.size() == WARM_UP_PAGE_SIZE);
+        ready = true;
+        logger.info("Search index built with {} tasks", index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.type() == TaskChangedEvent.Type.DELETED) {
+            index.remove(event.taskId());
+        } else {
+            Task task = event.task();
+            index.put(task.getId(), task.getTitle(), task.getDescription());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package se.jensen.yuki.taskmanager.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process full-text index over task titles and descriptions.
+ * <p>
+ * Every document is split into word tokens and character trigrams. A query of three or more
+ * characters only looks at documents that contain all of its trigrams, and the candidates are
+ * then verified with a substring match so the result is the same as the {@code LIKE '%kw%'} query.
+ * Shorter queries are resolved through the token vocabulary, which is much smaller than the
+ * document set.
+ */
+public class InvertedIndex {
+    static final int GRAM_SIZE = 3;
+
+    private static final int TITLE_TOKEN_SCORE = 8;
+    private static final int TITLE_SUBSTRING_SCORE = 4;
+    private static final int DESCRIPTION_TOKEN_SCORE = 2;
+    private static final int DESCRIPTION_SUBSTRING_SCORE = 1;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> tokenPostings = new HashMap<>();
+    private final Map<String, Set<Long>> gramPostings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(Long id, String title, String description) {
+        Document document = Document.of(normalize(title), normalize(description));
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            documents.put(id, document);
+            for (String token : document.tokens()) {
+                tokenPostings.computeIfAbsent(token, k -> new HashSet<>()).add(id);
+            }
+            for (String gram : document.grams()) {
+                gramPostings.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            tokenPostings.clear();
+            gramPostings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of matching documents, best match first and ties ordered by id.
+     */
+    public List<Long> search(String keyword, int offset, int limit) {
+        String query = normalize(keyword);
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        List<ScoredId> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(query)) {
+                int score = documents.get(id).score(query);
+                if (score > 0) {
+                    hits.add(new ScoredId(id, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingInt(ScoredId::score).reversed().thenComparing(ScoredId::id));
+        if (offset >= hits.size()) {
+            return List.of();
+        }
+        return hits.subList(offset, Math.min(hits.size(), offset + limit)).stream()
+                .map(ScoredId::id)
+                .toList();
+    }
+
+    private Set<Long> candidates(String query) {
+        if (query.length() < GRAM_SIZE) {
+            return shortQueryCandidates(query);
+        }
+        // Intersect the postings of every trigram, starting with the rarest one.
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> posting = gramPostings.get(gram);
+            if (posting == null) {
+                return Set.of();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+
+    private Set<Long> shortQueryCandidates(String query) {
+        if (!tokens(query).equals(Set.of(query))) {
+            // The query spans a word boundary, so no single token can contain it.
+            return documents.keySet();
+        }
+        Set<Long> result = new HashSet<>();
+        tokenPostings.forEach((token, ids) -> {
+            if (token.contains(query)) {
+                result.addAll(ids);
+            }
+        });
+        return result;
+    }
+
+    private void removeLocked(Long id) {
+        Document old = documents.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String token : old.tokens()) {
+            removePosting(tokenPostings, token, id);
+        }
+        for (String gram : old.grams()) {
+            removePosting(gramPostings, gram, id);
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, Long id) {
+        Set<Long> posting = postings.get(key);
+        if (posting != null) {
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT).trim();
+    }
+
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private record ScoredId(Long id, int score) {
+    }
+
+    private record Document(String title, String description, Set<String> titleTokens,
+                            Set<String> descriptionTokens) {
+
+        static Document of(String title, String description) {
+            return new Document(title, description, InvertedIndex.tokens(title), InvertedIndex.tokens(description));
+        }
+
+        Set<String> tokens() {
+            Set<String> tokens = new HashSet<>(titleTokens);
+            tokens.addAll(descriptionTokens);
+            return tokens;
+        }
+
+        Set<String> grams() {
+            Set<String> grams = InvertedIndex.grams(title);
+            grams.addAll(InvertedIndex.grams(description));
+            return grams;
+        }
+
+        int score(String query) {
+            int score = 0;
+            if (title.contains(query)) {
+                score += titleTokens.contains(query) ? TITLE_TOKEN_SCORE : TITLE_SUBSTRING_SCORE;
+            }
+            if (description.contains(query)) {
+                score += descriptionTokens.contains(query) ? DESCRIPTION_TOKEN_SCORE : DESCRIPTION_SUBSTRING_SCORE;
+            }
+            return score;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package se.jensen.yuki.taskmanager.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind for status changes, enabled with {@code taskmanager.status.write-behind=true}.
+ * <p>
+ * A status change is acknowledged as soon as it is in memory. Changes are coalesced per task, so a
+ * card dragged across three columns is written once with its last status, and flushed through
+ * {@link TaskService#applyStatuses(Map)} every {@code taskmanager.status.flush-interval} or as soon
+ * as {@code taskmanager.status.flush-size} tasks are waiting.
+ * <p>
+ * Durability: an acknowledged change is only in this process until the next flush. A graceful
+ * shutdown flushes what is left, but a crash or kill loses at most one interval of changes. Until the
+ * flush, reads still return the old status, and a failed flush is retried on the next one unless a
+ * newer change for the same task arrived in the meantime.
+ */
+@Component
+public class StatusWriteBuffer {
+    private static final Logger logger = LoggerFactory.getLogger(StatusWriteBuffer.class);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final TaskService taskService;
+    private final boolean enabled;
+    private final int flushSize;
+    private final Map<Long, TaskStatus> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "status-write-buffer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StatusWriteBuffer(TaskService taskService,
+                             @Value("${taskmanager.status.write-behind:false}") boolean enabled,
+                             @Value("${taskmanager.status.flush-interval:PT0.2S}") Duration flushInterval,
+                             @Value("${taskmanager.status.flush-size:500}") int flushSize) {
+        this.taskService = taskService;
+        this.enabled = enabled;
+        this.flushSize = flushSize;
+        if (enabled) {
+            long intervalMillis = flushInterval.toMillis();
+            flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a status change, replacing any change for the same task that has not been written yet.
+     */
+    public void submit(Long id, TaskStatus status) {
+        if (id == null || id <= 0 || status == null) {
+            logger.error("ID was negative or Status was null");
+            throw new IllegalArgumentException("ID must be a positive number and Status can't be null.");
+        }
+        pending.put(id, status);
+        requestFlushIfFull();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes up to {@link TaskService#MAX_BATCH_SIZE} waiting changes. Returns false if the write failed.
+     */
+    public boolean flush() {
+        flushRequested.set(false);
+        if (pending.isEmpty()) {
+            return true;
+        }
+        Map<Long, TaskStatus> batch = new HashMap<>();
+        Iterator<Long> ids = pending.keySet().iterator();
+        while (ids.hasNext() && batch.size() < TaskService.MAX_BATCH_SIZE) {
+            Long id = ids.next();
+            TaskStatus status = pending.remove(id);
+            if (status != null) {
+                batch.put(id, status);
+            }
+        }
+        try {
+            taskService.applyStatuses(batch);
+        } catch (RuntimeException e) {
+            // Keep the changes for the next flush, unless the task was changed again meanwhile.
+            batch.forEach(pending::putIfAbsent);
+            logger.error("Could not write {} buffered status changes, retrying on the next flush", batch.size(), e);
+            return false;
+        }
+        requestFlushIfFull();
+        return true;
+    }
+
+    private void requestFlushIfFull() {
+        if (pending.size() >= flushSize && !flusher.isShutdown() && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        while (!pending.isEmpty()) {
+            if (!flush()) {
+                logger.error("Lost {} buffered status changes on shutdown", pending.size());
+                return;
+            }
+        }
+    }
+}
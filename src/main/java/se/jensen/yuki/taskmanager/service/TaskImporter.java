@@ -0,0 +1,71 @@
+package se.jensen.yuki.taskmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import se.jensen.yuki.taskmanager.dto.ImportProgress;
+import se.jensen.yuki.taskmanager.model.Task;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Creates tasks from a stream of parsed rows of any length. Rows are collected into chunks of
+ * {@value #CHUNK_SIZE} and each chunk is inserted in its own transaction through
+ * {@link TaskService#addAll(List)}, so memory use does not depend on the size of the input and a
+ * failure only loses the chunk that was being written.
+ */
+@Component
+public class TaskImporter {
+    static final int CHUNK_SIZE = 1000;
+    private static final Logger logger = LoggerFactory.getLogger(TaskImporter.class);
+
+    private final TaskService taskService;
+
+    public TaskImporter(TaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    /**
+     * Imports every task {@code rows} returns. Rows for which the iterator throws
+     * {@link IllegalArgumentException} are counted as invalid and skipped. {@code progress} is called
+     * after every chunk and once more when the import is done.
+     */
+    public ImportProgress importTasks(Iterator<Task> rows, Consumer<ImportProgress> progress) {
+        List<Task> chunk = new ArrayList<>(CHUNK_SIZE);
+        long read = 0;
+        long imported = 0;
+        long invalid = 0;
+        String error = null;
+        while (true) {
+            Task task;
+            try {
+                if (!rows.hasNext()) {
+                    break;
+                }
+                task = rows.next();
+            } catch (IllegalArgumentException e) {
+                read++;
+                invalid++;
+                error = e.getMessage();
+                continue;
+            }
+            read++;
+            chunk.add(task);
+            if (chunk.size() == CHUNK_SIZE) {
+                imported += taskService.addAll(chunk).size();
+                chunk.clear();
+                progress.accept(new ImportProgress(read, imported, invalid, error, false));
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += taskService.addAll(chunk).size();
+        }
+        ImportProgress result = new ImportProgress(read, imported, invalid, error, true);
+        progress.accept(result);
+        logger.info("Imported {} tasks, skipped {} invalid rows", imported, invalid);
+        return result;
+    }
+}
@@ -1,90 +1,611 @@
 package se.jensen.yuki.taskmanager.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import se.jensen.yuki.taskmanager.board.BoardReadModel;
+import se.jensen.yuki.taskmanager.cache.TaskCacheInvalidator;
+import se.jensen.yuki.taskmanager.config.CacheConfig;
+import se.jensen.yuki.taskmanager.dto.BatchResult;
+import se.jensen.yuki.taskmanager.dto.BoardSummary;
+import se.jensen.yuki.taskmanager.dto.TaskChanges;
+import se.jensen.yuki.taskmanager.dto.TaskCursor;
+import se.jensen.yuki.taskmanager.dto.TaskView;
+import se.jensen.yuki.taskmanager.event.TaskChangedEvent;
 import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskField;
+import se.jensen.yuki.taskmanager.model.TaskSort;
 import se.jensen.yuki.taskmanager.model.TaskStatus;
 import se.jensen.yuki.taskmanager.repository.TaskRepository;
+import se.jensen.yuki.taskmanager.search.InMemoryTaskSearchIndex;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("taskmanager.service")
 public class TaskService {
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 10_000;
+    // Matches hibernate.jdbc.batch_size so every flush sends full JDBC batches.
+    private static final int BATCH_CHUNK_SIZE = 50;
     private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
     private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InMemoryTaskSearchIndex searchIndex;
+    private final BoardReadModel boardReadModel;
 
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher,
+                       InMemoryTaskSearchIndex searchIndex, BoardReadModel boardReadModel) {
         this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.boardReadModel = boardReadModel;
     }
 
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+    /**
+     * All tasks as read-only views with only {@code fields} loaded, ordered by id. Views from the
+     * board read model have every field loaded.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskView> getAllTaskViews(Set<TaskField> fields) {
+        return boardReadModel.findAll()
+                .orElseGet(() -> taskRepository.findViews(null, TaskSort.ID, null, Integer.MAX_VALUE, fields));
     }
 
-    public Optional<Task> getById(Long id) {
+    /**
+     * A keyset page of views after {@code after}. The field of {@code sort} is loaded even when it is
+     * not in {@code fields}, for {@link TaskCursor#after}.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskView> getPageViews(TaskStatus status, TaskSort sort, TaskCursor after, int limit,
+                                       Set<TaskField> fields) {
+        validatePage(after == null ? null : after.id(), limit);
+        return taskRepository.findViews(status, sort == null ? TaskSort.ID : sort, after, limit, fields);
+    }
+
+    @Transactional(readOnly = true)
+    public BoardSummary getBoard(int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            logger.error("Board limit was out of range: {}", limit);
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        return boardReadModel.findBoard(limit).orElseGet(() -> taskRepository.findBoard(limit));
+    }
+
+    /**
+     * Number of tasks per status, for board clients to correct counts they keep from deltas. Counted on
+     * the primary, not a replica, so replica lag can't undo deltas clients have already applied.
+     */
+    @Transactional
+    public Map<TaskStatus, Long> countByStatus() {
+        return taskRepository.countByStatus();
+    }
+
+    /**
+     * Weak ETag of the task list, or of the tasks with {@code status} if given. From the board read model
+     * it is a hash of the tasks it serves; from the database it is the latest revision, which every write
+     * raises. Must be read before the list, so a write in between changes the ETag rather than the body
+     * under an old one.
+     */
+    @Transactional(readOnly = true)
+    public String getListETag(TaskStatus status) {
+        return boardReadModel.findListETag(status)
+                .orElseGet(() -> "W/\"r" + taskRepository.findLatestRevision() + "\"");
+    }
+
+    /**
+     * Reads the list ETag as {@link #getListETag} does and hands it to {@code read}, which reads the body,
+     * in the same transaction. With replica routing that keeps both on one connection, so the body can't
+     * come from a replica that is behind the one the ETag was read from.
+     */
+    @Transactional(readOnly = true)
+    public <T> T readWithListETag(TaskStatus status, Function<String, T> read) {
+        return read.apply(getListETag(status));
+    }
+
+    @Transactional(readOnly = true)
+    public void streamTasks(TaskStatus status, Consumer<Task> action) {
+        try (Stream<Task> tasks = taskRepository.streamAll(status)) {
+            tasks.forEach(action);
+        }
+    }
+
+    /**
+     * The task as a read-only view, cached by id. {@code sync} loads a missing entry inside the cache's
+     * lock for that id, so an eviction that comes in while it loads waits and then drops what was loaded
+     * instead of being overwritten by it.
+     * <p>
+     * Not a read-only transaction, so a missing entry is loaded from the primary: with replica routing a
+     * lagging replica would put the row back as it was before the write that evicted it.
+     */
+    @Cacheable(cacheNames = CacheConfig.TASKS_CACHE, key = "#id", condition = "#id != null && #id > 0", sync = true)
+    @Transactional
+    public Optional<TaskView> getById(Long id) {
         if (id <= 0) {
             logger.error("ID was smaller than 1.");
             throw new IllegalArgumentException("ID must be a positive number.");
         }
-        return taskRepository.findById(id);
+        return findLive(id).map(TaskView::from);
+    }
+
+    /**
+     * Tasks created, changed or deleted after revision {@code since}, oldest change first. Deleted
+     * tasks come back as tombstones with {@code deleted} set; {@code since = 0} returns everything.
+     */
+    @Transactional(readOnly = true)
+    public TaskChanges getChangesSince(long since, int limit) {
+        if (since < 0) {
+            logger.error("Revision was negative: {}", since);
+            throw new IllegalArgumentException("Revision can't be negative.");
+        }
+        validatePage(null, limit);
+        List<Task> tasks = taskRepository.findChangesSince(since, limit);
+        long revision = tasks.isEmpty() ? since : tasks.getLast().getRevision();
+        return new TaskChanges(tasks, revision, tasks.size() == limit);
     }
 
+    @Transactional
     public Task add(Task task) {
         if (task == null) {
             logger.error("Task was null");
             throw new IllegalArgumentException("Task can't be null");
         }
-        return taskRepository.save(task);
+        validatePriority(task.getPriority());
+        if (task.getPriority() == null) {
+            task.setPriority(Task.DEFAULT_PRIORITY);
+        }
+        task.touch(taskRepository.reserveRevisions(1), LocalDateTime.now());
+        Task savedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.created(savedTask));
+        return savedTask;
     }
 
+    @Transactional
     public Task update(Long id, Task task) {
+        return update(id, task, null);
+    }
+
+    /**
+     * Updates the task only if it is still at {@code expectedVersion} (any version if null).
+     * Throws {@link OptimisticLockingFailureException} when someone else changed it first.
+     */
+    @Transactional
+    public Task update(Long id, Task task, Long expectedVersion) {
         if (id <= 0 || task == null) {
             logger.error("ID was negative or Task was null");
             throw new IllegalArgumentException("ID must be a positive number or Task can't be null.");
         }
-        Optional<Task> targetOptTask = taskRepository.findById(id);
+        validatePriority(task.getPriority());
+        Optional<Task> targetOptTask = findLive(id);
         if (targetOptTask.isEmpty()) {
             logger.error("No such task found with ID= {}", id);
             throw new NoSuchElementException("No such task found with ID=" + id);
         }
         Task targetTask = targetOptTask.get();
+        if (expectedVersion != null && !expectedVersion.equals(targetTask.getVersion())) {
+            logger.warn("Task with ID= {} is at version {}, expected {}", id, targetTask.getVersion(), expectedVersion);
+            throw new OptimisticLockingFailureException("Task with ID=" + id + " has been changed by someone else.");
+        }
+        TaskStatus previousStatus = targetTask.getStatus();
         targetTask.copyFrom(task);
+        targetTask.touch(taskRepository.reserveRevisions(1), LocalDateTime.now());
         logger.info("Updated successfully");
-        return taskRepository.save(targetTask);
+        Task savedTask = taskRepository.save(targetTask);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(savedTask, previousStatus));
+        return savedTask;
     }
 
+    @Transactional
+    public Optional<Task> updateStatus(Long id, TaskStatus status) {
+        if (id <= 0 || status == null) {
+            logger.error("ID was negative or Status was null");
+            throw new IllegalArgumentException("ID must be a positive number and Status can't be null.");
+        }
+        return findLive(id)
+                .map(task -> {
+                    TaskStatus previousStatus = task.getStatus();
+                    task.setStatus(status);
+                    task.touch(taskRepository.reserveRevisions(1), LocalDateTime.now());
+                    Task savedTask = taskRepository.save(task);
+                    eventPublisher.publishEvent(TaskChangedEvent.statusChanged(savedTask, previousStatus));
+                    return savedTask;
+                });
+    }
+
+    /**
+     * Applies coalesced status changes from the {@link StatusWriteBuffer}: one query to read the tasks,
+     * then one JDBC batch that updates only the status columns. Tasks that are gone, already have the
+     * status or were changed in between are skipped. Returns the number of tasks updated.
+     */
+    @Transactional
+    public int applyStatuses(Map<Long, TaskStatus> statuses) {
+        List<Task> changed = new ArrayList<>(statuses.size());
+        for (Task task : taskRepository.findAllById(statuses.keySet())) {
+            if (!task.isDeleted() && task.getStatus() != statuses.get(task.getId())) {
+                changed.add(task);
+            }
+        }
+        // Detach the tasks so the changes below only reach the database through the batch.
+        taskRepository.flushAndClear();
+        if (changed.isEmpty()) {
+            return 0;
+        }
+
+        long revision = taskRepository.reserveRevisions(changed.size());
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskStatus> previousStatuses = new ArrayList<>(changed.size());
+        for (Task task : changed) {
+            previousStatuses.add(task.getStatus());
+            task.setStatus(statuses.get(task.getId()));
+            task.touch(revision++, now);
+        }
+        int[] counts = taskRepository.updateStatuses(changed);
+
+        int updated = 0;
+        for (int i = 0; i < changed.size(); i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            Task task = changed.get(i);
+            task.setVersion(task.getVersion() + 1);
+            eventPublisher.publishEvent(TaskChangedEvent.statusChanged(task, previousStatuses.get(i)));
+            updated++;
+        }
+        logger.debug("Applied {} of {} buffered status changes", updated, statuses.size());
+        return updated;
+    }
+
+    /**
+     * Creates all tasks in one transaction. Inserts are flushed as JDBC batches every
+     * {@value #BATCH_CHUNK_SIZE} tasks; null items are reported as invalid.
+     */
+    @Transactional
+    public List<BatchResult> addAll(List<Task> tasks) {
+        validateBatch(tasks);
+        BatchResult[] results = new BatchResult[tasks.size()];
+        List<TaskChangedEvent> events = new ArrayList<>(tasks.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int start = 0; start < tasks.size(); start += BATCH_CHUNK_SIZE) {
+            List<Task> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+            List<Integer> indexes = new ArrayList<>(BATCH_CHUNK_SIZE);
+            for (int i = start; i < Math.min(tasks.size(), start + BATCH_CHUNK_SIZE); i++) {
+                Task task = tasks.get(i);
+                if (task == null || !Task.isValidPriority(task.getPriority())) {
+                    results[i] = new BatchResult(i, null, BatchResult.Outcome.INVALID);
+                    continue;
+                }
+                task.setId(null);
+                if (task.getPriority() == null) {
+                    task.setPriority(Task.DEFAULT_PRIORITY);
+                }
+                chunk.add(task);
+                indexes.add(i);
+            }
+
+            touchAll(chunk, now);
+            List<Task> savedTasks = taskRepository.saveAll(chunk);
+            taskRepository.flushAndClear();
+            for (int j = 0; j < savedTasks.size(); j++) {
+                Task savedTask = savedTasks.get(j);
+                results[indexes.get(j)] = new BatchResult(indexes.get(j), savedTask.getId(), BatchResult.Outcome.CREATED);
+                events.add(TaskChangedEvent.created(savedTask));
+            }
+        }
+        events.forEach(eventPublisher::publishEvent);
+        logger.info("Created {} tasks in batch", events.size());
+        return List.of(results);
+    }
+
+    /**
+     * Applies {@link Task#copyFrom(Task)} to every task identified by its id in one transaction.
+     * Each chunk is loaded with a single query and written back as one JDBC update batch.
+     */
+    @Transactional
+    public List<BatchResult> updateAll(List<Task> tasks) {
+        validateBatch(tasks);
+        List<BatchResult> results = new ArrayList<>(tasks.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int start = 0; start < tasks.size(); start += BATCH_CHUNK_SIZE) {
+            List<Task> chunk = tasks.subList(start, Math.min(tasks.size(), start + BATCH_CHUNK_SIZE));
+            Map<Long, Task> targets = findAllByIdAsMap(chunk.stream()
+                    .filter(task -> task != null && task.getId() != null && task.getId() > 0)
+                    .map(Task::getId)
+                    .toList());
+
+            List<Task> updated = new ArrayList<>(chunk.size());
+            List<TaskStatus> previousStatuses = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                Task task = chunk.get(i);
+                int index = start + i;
+                if (task == null || task.getId() == null || task.getId() <= 0) {
+                    results.add(new BatchResult(index, null, BatchResult.Outcome.INVALID));
+                    continue;
+                }
+                if (!Task.isValidPriority(task.getPriority())) {
+                    results.add(new BatchResult(index, task.getId(), BatchResult.Outcome.INVALID));
+                    continue;
+                }
+                Task target = targets.get(task.getId());
+                if (target == null) {
+                    results.add(new BatchResult(index, task.getId(), BatchResult.Outcome.NOT_FOUND));
+                    continue;
+                }
+                previousStatuses.add(target.getStatus());
+                target.copyFrom(task);
+                updated.add(target);
+                results.add(new BatchResult(index, target.getId(), BatchResult.Outcome.UPDATED));
+            }
+            // Events are built after touchAll so they carry the new revisions.
+            touchAll(updated, now);
+            List<TaskChangedEvent> events = new ArrayList<>(updated.size());
+            for (int i = 0; i < updated.size(); i++) {
+                events.add(TaskChangedEvent.updated(updated.get(i), previousStatuses.get(i)));
+            }
+            taskRepository.flushAndClear();
+            events.forEach(eventPublisher::publishEvent);
+        }
+        return results;
+    }
+
+    /**
+     * Deletes the given ids in one transaction, leaving tombstones that are written back as one
+     * JDBC update batch per chunk.
+     */
+    @Transactional
+    public List<BatchResult> deleteAll(List<Long> ids) {
+        validateBatch(ids);
+        List<BatchResult> results = new ArrayList<>(ids.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int start = 0; start < ids.size(); start += BATCH_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(start, Math.min(ids.size(), start + BATCH_CHUNK_SIZE));
+            Map<Long, Task> existing = findAllByIdAsMap(chunk.stream()
+                    .filter(id -> id != null && id > 0)
+                    .toList());
+            if (!existing.isEmpty()) {
+                long revision = taskRepository.reserveRevisions(existing.size());
+                for (Task task : existing.values()) {
+                    task.markDeleted(revision++, now);
+                }
+            }
+
+            for (int i = 0; i < chunk.size(); i++) {
+                Long id = chunk.get(i);
+                int index = start + i;
+                if (id == null || id <= 0) {
+                    results.add(new BatchResult(index, id, BatchResult.Outcome.INVALID));
+                } else if (existing.containsKey(id)) {
+                    results.add(new BatchResult(index, id, BatchResult.Outcome.DELETED));
+                    Task task = existing.get(id);
+                    eventPublisher.publishEvent(TaskChangedEvent.deleted(id, task.getStatus(), task.getRevision()));
+                } else {
+                    results.add(new BatchResult(index, id, BatchResult.Outcome.NOT_FOUND));
+                }
+            }
+            taskRepository.flushAndClear();
+        }
+        return results;
+    }
+
+    @Transactional(readOnly = true)
     public List<Task> findByKeyword(String keyword) {
         if (keyword == null || keyword.isEmpty()) {
             logger.error("Keyword was null");
             throw new IllegalArgumentException("Keyword can't be empty.");
         }
-        logger.info("Starting findByKeyword with keyword={}", keyword);
-        List<Task> tasks = taskRepository.findByKeyword(keyword);
+        logger.debug("Starting findByKeyword with keyword={}", keyword);
+        List<Task> tasks = searchIndex.isEnabled()
+                ? loadInOrder(searchIndex.search(keyword, 0, Integer.MAX_VALUE))
+                : taskRepository.findByKeyword(keyword);
         if (tasks.isEmpty()) {
-            logger.warn("No tasks found with keyword= {}", keyword);
+            logger.debug("No tasks found with keyword= {}", keyword);
             throw new NoSuchElementException("No tasks found with keyword= " + keyword);
         }
         return tasks;
         //return taskRepository.findByKeyword(keyword);
     }
 
-    public List<Task> findByStatus(TaskStatus status) {
+    /**
+     * Ranked and paginated keyword search. Returns an empty list when the page is past the last match.
+     */
+    @Transactional(readOnly = true)
+    public List<Task> findByKeyword(String keyword, int page, int size) {
+        if (keyword == null || keyword.isEmpty()) {
+            logger.error("Keyword was null");
+            throw new IllegalArgumentException("Keyword can't be empty.");
+        }
+        if (page < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+            logger.error("Page or size was out of range: page={}, size={}", page, size);
+            throw new IllegalArgumentException("Page can't be negative and size must be between 1 and "
+                    + MAX_PAGE_SIZE + ".");
+        }
+        int offset = Math.multiplyExact(page, size);
+        if (searchIndex.isEnabled()) {
+            return loadInOrder(searchIndex.search(keyword, offset, size));
+        }
+        return taskRepository.findByKeyword(keyword, offset, size);
+    }
+
+    /**
+     * Same search as {@link #findByKeyword(String, int, int)}, returning views with only {@code fields} loaded.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskView> findViewsByKeyword(String keyword, int page, int size, Set<TaskField> fields) {
+        if (keyword == null || keyword.isEmpty()) {
+            logger.error("Keyword was null");
+            throw new IllegalArgumentException("Keyword can't be empty.");
+        }
+        if (page < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+            logger.error("Page or size was out of range: page={}, size={}", page, size);
+            throw new IllegalArgumentException("Page can't be negative and size must be between 1 and "
+                    + MAX_PAGE_SIZE + ".");
+        }
+        int offset = Math.multiplyExact(page, size);
+        if (searchIndex.isEnabled()) {
+            List<Long> ids = searchIndex.search(keyword, offset, size);
+            Map<Long, TaskView> viewsById = taskRepository.findViewsById(ids, fields).stream()
+                    .collect(Collectors.toMap(TaskView::id, Function.identity()));
+            return ids.stream()
+                    .map(viewsById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+        return taskRepository.findViewsByKeyword(keyword, offset, size, fields);
+    }
+
+    /**
+     * Tasks that are not done and past their end date, most overdue first.
+     */
+    @Transactional(readOnly = true)
+    public List<Task> findOverdue(int limit) {
+        validatePage(null, limit);
+        return taskRepository.findOverdue(LocalDateTime.now(), limit);
+    }
+
+    /**
+     * Tasks that are not done and end within the next {@code days} days, soonest first.
+     */
+    @Transactional(readOnly = true)
+    public List<Task> findDueWithin(int days, int limit) {
+        if (days <= 0) {
+            logger.error("Days was smaller than 1: {}", days);
+            throw new IllegalArgumentException("Days must be a positive number.");
+        }
+        validatePage(null, limit);
+        LocalDateTime now = LocalDateTime.now();
+        return taskRepository.findDueWithin(now, now.plusDays(days), limit);
+    }
+
+    /**
+     * The {@code limit} open tasks to work on next: highest priority first, then the earliest end date
+     * (tasks without one last), then id. A top-K read from the board read model when it is serving,
+     * otherwise one index range scan that stops after {@code limit} rows.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskView> findNext(int limit) {
+        validatePage(null, limit);
+        return boardReadModel.findNext(limit).orElseGet(() -> taskRepository.findNext(limit));
+    }
+
+    /**
+     * All tasks with {@code status} as views with every field loaded, in an unmodifiable list. Callers
+     * that want fewer fields leave them out when writing the response.
+     * <p>
+     * Read from the board read model while it is serving. Otherwise read from the primary and cached per
+     * status like {@link #getById}; the cache is skipped while the model serves, because its entries are
+     * evicted by {@link TaskCacheInvalidator} in no fixed order with the model's own update and could be
+     * filled again from the model before that update.
+     */
+    @Cacheable(cacheNames = CacheConfig.TASKS_BY_STATUS_CACHE, key = "#status",
+            condition = "#status != null && !@boardReadModel.isServing()", sync = true)
+    @Transactional
+    public List<TaskView> findViewsByStatus(TaskStatus status) {
         if (status == null) {
             logger.error("Status can't be null");
             throw new IllegalArgumentException("Status can't be null");
         }
-        return taskRepository.findByStatus(status);
+        List<TaskView> tasks = boardReadModel.findByStatus(status)
+                .orElseGet(() -> taskRepository.findViews(status, TaskSort.ID, null, Integer.MAX_VALUE, TaskField.ALL));
+        return List.copyOf(tasks);
     }
 
+    /**
+     * Replaces the task with a tombstone so clients syncing through {@link #getChangesSince} see the delete.
+     */
+    @Transactional
     public void deleteTask(Long id) {
         if (id <= 0) {
             throw new IllegalArgumentException("ID can't be negative");
         }
-        taskRepository.deleteById(id);
+        findLive(id).ifPresent(task -> {
+            TaskStatus previousStatus = task.getStatus();
+            task.markDeleted(taskRepository.reserveRevisions(1), LocalDateTime.now());
+            taskRepository.save(task);
+            eventPublisher.publishEvent(TaskChangedEvent.deleted(id, previousStatus, task.getRevision()));
+        });
     }
 
+    private void validatePage(Long after, int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            logger.error("Page limit was out of range: {}", limit);
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        if (after != null && after <= 0) {
+            logger.error("Cursor ID was smaller than 1.");
+            throw new IllegalArgumentException("Cursor ID must be a positive number.");
+        }
+    }
+
+    private void validatePriority(Integer priority) {
+        if (!Task.isValidPriority(priority)) {
+            logger.error("Priority was out of range: {}", priority);
+            throw new IllegalArgumentException("Priority must be between " + Task.HIGHEST_PRIORITY + " and "
+                    + Task.LOWEST_PRIORITY + ".");
+        }
+    }
+
+    private void validateBatch(List<?> items) {
+        if (items == null || items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+            logger.error("Batch was empty or larger than {}", MAX_BATCH_SIZE);
+            throw new IllegalArgumentException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " items.");
+        }
+    }
+
+    /**
+     * Stamps {@code tasks} with a block of consecutive revisions.
+     */
+    private void touchAll(List<Task> tasks, LocalDateTime now) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        long revision = taskRepository.reserveRevisions(tasks.size());
+        for (Task task : tasks) {
+            task.touch(revision++, now);
+        }
+    }
+
+    /**
+     * Lookups by id are not guaranteed to apply the entity's tombstone restriction, so check it here.
+     */
+    private Optional<Task> findLive(Long id) {
+        return taskRepository.findById(id).filter(task -> !task.isDeleted());
+    }
+
+    private Map<Long, Task> findAllByIdAsMap(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return taskRepository.findAllById(ids).stream()
+                .filter(task -> !task.isDeleted())
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+    }
+
+    private List<Task> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Task> tasksById = taskRepository.findAllById(ids).stream()
+                .filter(task -> !task.isDeleted())
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        return ids.stream()
+                .map(tasksById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 
 }
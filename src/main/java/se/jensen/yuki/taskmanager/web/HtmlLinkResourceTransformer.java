@@ -0,0 +1,48 @@
+package se.jensen.yuki.taskmanager.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+import org.springframework.web.servlet.resource.ResourceTransformerSupport;
+import org.springframework.web.servlet.resource.TransformedResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites the relative {@code src} and {@code href} links of HTML pages to the URLs the resource chain
+ * serves them under, e.g. {@code app.js} to {@code app-<content hash>.js}; the HTML counterpart of
+ * Spring's {@code CssLinkResourceTransformer}. Links with a scheme, like CDN scripts, are left alone.
+ */
+public class HtmlLinkResourceTransformer extends ResourceTransformerSupport {
+    // Relative links only: no scheme, no protocol-relative "//", no fragment.
+    private static final Pattern LINK = Pattern.compile("\\b(src|href)=\"(?!//|#)([^\":?#]+)\"");
+
+    @Override
+    public Resource transform(HttpServletRequest request, Resource resource, ResourceTransformerChain transformerChain)
+            throws IOException {
+        resource = transformerChain.transform(request, resource);
+        String filename = resource.getFilename();
+        if (filename == null || !filename.endsWith(".html")) {
+            return resource;
+        }
+        String content;
+        try (InputStream in = resource.getInputStream()) {
+            content = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+        Matcher matcher = LINK.matcher(content);
+        StringBuilder rewritten = new StringBuilder(content.length());
+        while (matcher.find()) {
+            String link = matcher.group(2);
+            String url = resolveUrlPath(link, request, resource, transformerChain);
+            matcher.appendReplacement(rewritten,
+                    Matcher.quoteReplacement(matcher.group(1) + "=\"" + (url != null ? url : link) + "\""));
+        }
+        matcher.appendTail(rewritten);
+        return new TransformedResource(resource, rewritten.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
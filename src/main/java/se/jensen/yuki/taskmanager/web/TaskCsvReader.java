@@ -0,0 +1,178 @@
+package se.jensen.yuki.taskmanager.web;
+
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads tasks from CSV written by {@link TaskCsvWriter}, one row at a time. Columns are matched by the
+ * names in the header row, so they may come in any order and any of them may be left out; {@code id}
+ * and {@code version} are ignored because imported tasks are created as new tasks.
+ * <p>
+ * {@link #next()} throws {@link IllegalArgumentException} for a row that can't be turned into a task,
+ * after moving past it, so the caller can count the row and go on.
+ */
+public class TaskCsvReader implements Iterator<Task> {
+    private final Reader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private List<String> nextRecord;
+    private long row;
+    private int peeked = -2;
+
+    /**
+     * {@code reader} should be buffered; it is read one character at a time.
+     */
+    public TaskCsvReader(Reader reader) {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV is empty, expected a header row.");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i);
+            if (name != null) {
+                columns.put(name.trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (nextRecord == null) {
+            List<String> record = readRecord();
+            if (record == null) {
+                return false;
+            }
+            // Skip blank lines.
+            if (record.size() > 1 || record.get(0) != null) {
+                nextRecord = record;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Task next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<String> record = nextRecord;
+        nextRecord = null;
+        row++;
+        try {
+            Task task = new Task(field(record, "title"), field(record, "description"),
+                    dateTime(record, "created_datetime"), dateTime(record, "start_datetime"),
+                    dateTime(record, "end_datetime"));
+            String status = field(record, "status");
+            if (status != null && !status.isEmpty()) {
+                task.setStatus(TaskStatus.valueOf(status.trim()));
+            }
+            String priority = field(record, "priority");
+            if (priority != null && !priority.isBlank()) {
+                task.setPriority(Integer.valueOf(priority.trim()));
+            }
+            if (!Task.isValidPriority(task.getPriority())) {
+                throw new IllegalArgumentException("priority must be between " + Task.HIGHEST_PRIORITY
+                        + " and " + Task.LOWEST_PRIORITY + ".");
+            }
+            return task;
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Row " + row + ": " + e.getMessage(), e);
+        }
+    }
+
+    private String field(List<String> record, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    private LocalDateTime dateTime(List<String> record, String name) {
+        String value = field(record, name);
+        return value == null || value.isBlank() ? null : LocalDateTime.parse(value.trim());
+    }
+
+    /**
+     * Reads one record, or null at the end of the input. Unquoted empty fields are null, quoted
+     * fields may contain separators, line breaks and doubled quotes.
+     */
+    private List<String> readRecord() {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (c == '"' && field.isEmpty() && !quoted) {
+                quoted = true;
+                c = readQuoted(field);
+            }
+            if (c == ',' || c == '\r' || c == '\n' || c == -1) {
+                record.add(field.isEmpty() && !quoted ? null : field.toString());
+                if (c != ',') {
+                    if (c == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    return record;
+                }
+                field.setLength(0);
+                quoted = false;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Reads a quoted field up to its closing quote and returns the character after it.
+     */
+    private int readQuoted(StringBuilder field) {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IllegalArgumentException("Row " + (row + 1) + ": quoted field is not closed.");
+            }
+            if (c == '"') {
+                if (peek() != '"') {
+                    return read();
+                }
+                read();
+            }
+            field.append((char) c);
+        }
+    }
+
+    private int read() {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        try {
+            return reader.read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int peek() {
+        if (peeked == -2) {
+            peeked = read();
+        }
+        return peeked;
+    }
+}
@@ -0,0 +1,81 @@
+package se.jensen.yuki.taskmanager.web;
+
+import se.jensen.yuki.taskmanager.model.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes tasks as RFC 4180 CSV, one row at a time. Dates use the same {@code yyyy-MM-dd'T'HH:mm:ss}
+ * format as the JSON API. A null is written as an empty field and an empty string as {@code ""},
+ * so {@link TaskCsvReader} can tell them apart.
+ */
+public final class TaskCsvWriter {
+    public static final String HEADER =
+            "id,title,description,created_datetime,start_datetime,end_datetime,status,priority,version";
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private TaskCsvWriter() {
+    }
+
+    public static void writeHeader(Writer writer) throws IOException {
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    public static void writeRow(Writer writer, Task task) throws IOException {
+        writeNumber(writer, task.getId());
+        writer.write(',');
+        writeString(writer, task.getTitle());
+        writer.write(',');
+        writeString(writer, task.getDescription());
+        writer.write(',');
+        writeDateTime(writer, task.getCreatedDatetime());
+        writer.write(',');
+        writeDateTime(writer, task.getStartDatetime());
+        writer.write(',');
+        writeDateTime(writer, task.getEndDatetime());
+        writer.write(',');
+        writeString(writer, task.getStatus() == null ? null : task.getStatus().name());
+        writer.write(',');
+        writeNumber(writer, task.getPriority());
+        writer.write(',');
+        writeNumber(writer, task.getVersion());
+        writer.write("\r\n");
+    }
+
+    private static void writeNumber(Writer writer, Number value) throws IOException {
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    private static void writeDateTime(Writer writer, LocalDateTime value) throws IOException {
+        if (value != null) {
+            DATE_TIME.formatTo(value, writer);
+        }
+    }
+
+    /**
+     * Quotes every non-null string; quotes inside it are doubled.
+     */
+    private static void writeString(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                writer.write(value, start, i + 1 - start);
+                writer.write('"');
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+}
@@ -0,0 +1,134 @@
+package se.jensen.yuki.taskmanager.web;
+
+import se.jensen.yuki.taskmanager.dto.TaskView;
+import se.jensen.yuki.taskmanager.model.TaskField;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes task lists as JSON without reflection: the same format Jackson produces for {@link TaskView}
+ * (dates as {@code yyyy-MM-dd'T'HH:mm:ss}, nulls included), restricted to the selected fields.
+ */
+public final class TaskJsonWriter {
+    private static final int BUFFER_SIZE = 8192;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private TaskJsonWriter() {
+    }
+
+    public static void write(List<TaskView> tasks, Set<TaskField> fields, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write('[');
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeTask(writer, tasks.get(i), fields);
+        }
+        writer.write(']');
+        writer.flush();
+    }
+
+    private static void writeTask(Writer writer, TaskView task, Set<TaskField> fields) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        for (TaskField field : fields) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writer.write('"');
+            writer.write(field.getProperty());
+            writer.write("\":");
+            switch (field) {
+                case ID -> writeNumber(writer, task.id());
+                case TITLE -> writeString(writer, task.title());
+                case DESCRIPTION -> writeString(writer, task.description());
+                case CREATED_DATETIME -> writeDateTime(writer, task.createdDatetime());
+                case START_DATETIME -> writeDateTime(writer, task.startDatetime());
+                case END_DATETIME -> writeDateTime(writer, task.endDatetime());
+                case STATUS -> writeString(writer, task.status() == null ? null : task.status().name());
+                case PRIORITY -> writeNumber(writer, task.priority());
+                case VERSION -> writeNumber(writer, task.version());
+            }
+        }
+        writer.write('}');
+    }
+
+    private static void writeNumber(Writer writer, Number value) throws IOException {
+        writer.write(value == null ? "null" : value.toString());
+    }
+
+    private static void writeString(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        // Copy runs of characters that need no escaping in one call.
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            writer.write(value, start, i - start);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                case '\b' -> writer.write("\\b");
+                case '\f' -> writer.write("\\f");
+                default -> {
+                    writer.write("\\u00");
+                    writer.write(HEX[c >> 4]);
+                    writer.write(HEX[c & 0xF]);
+                }
+            }
+            start = i + 1;
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+
+    private static void writeDateTime(Writer writer, LocalDateTime value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        writeDigits(writer, value.getYear(), 4);
+        writer.write('-');
+        writeDigits(writer, value.getMonthValue(), 2);
+        writer.write('-');
+        writeDigits(writer, value.getDayOfMonth(), 2);
+        writer.write('T');
+        writeDigits(writer, value.getHour(), 2);
+        writer.write(':');
+        writeDigits(writer, value.getMinute(), 2);
+        writer.write(':');
+        writeDigits(writer, value.getSecond(), 2);
+        writer.write('"');
+    }
+
+    private static void writeDigits(Writer writer, int value, int width) throws IOException {
+        if (value < 0 || value >= 10_000) {
+            // Years outside 0000-9999 are printed as they are.
+            writer.write(Integer.toString(value));
+            return;
+        }
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            writer.write('0' + value / divisor % 10);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package se.jensen.yuki.taskmanager.web;
+
+import se.jensen.yuki.taskmanager.model.Task;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads one task per line of newline delimited JSON, in the format {@code GET /tasks/stream} writes.
+ * {@link #next()} throws {@link IllegalArgumentException} for a line that is not a valid task, after
+ * moving past it; blank lines are skipped.
+ */
+public class TaskNdjsonReader implements Iterator<Task> {
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private String nextLine;
+    private long line;
+
+    public TaskNdjsonReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (nextLine == null) {
+                String read = reader.readLine();
+                if (read == null) {
+                    return false;
+                }
+                line++;
+                if (!read.isBlank()) {
+                    nextLine = read;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Task next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String json = nextLine;
+        nextLine = null;
+        Task task;
+        try {
+            task = objectMapper.readValue(json, Task.class);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Line " + line + ": " + e.getOriginalMessage(), e);
+        }
+        if (!Task.isValidPriority(task.getPriority())) {
+            throw new IllegalArgumentException("Line " + line + ": priority must be between "
+                    + Task.HIGHEST_PRIORITY + " and " + Task.LOWEST_PRIORITY + ".");
+        }
+        return task;
+    }
+}
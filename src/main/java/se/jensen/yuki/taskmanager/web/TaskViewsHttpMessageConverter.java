@@ -0,0 +1,40 @@
+package se.jensen.yuki.taskmanager.web;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import se.jensen.yuki.taskmanager.dto.TaskViews;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link TaskViews} responses with {@link TaskJsonWriter} instead of Jackson. Write only.
+ */
+public class TaskViewsHttpMessageConverter extends AbstractHttpMessageConverter<TaskViews> {
+
+    public TaskViewsHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TaskViews.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected TaskViews readInternal(Class<? extends TaskViews> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Task lists can't be read", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(TaskViews views, HttpOutputMessage outputMessage) throws IOException {
+        TaskJsonWriter.write(views.tasks(), views.fields(), outputMessage.getBody());
+    }
+}
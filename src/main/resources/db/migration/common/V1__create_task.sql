@@ -0,0 +1,14 @@
+-- The schema Hibernate used to create with ddl-auto=update. Databases created that way are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and skip this script.
+CREATE SEQUENCE IF NOT EXISTS task_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS task (
+    id               BIGINT       NOT NULL PRIMARY KEY,
+    title            VARCHAR(255),
+    description      VARCHAR(255),
+    created_datetime TIMESTAMP(6),
+    start_datetime   TIMESTAMP(6),
+    end_datetime     TIMESTAMP(6),
+    status           VARCHAR(255),
+    version          BIGINT
+);
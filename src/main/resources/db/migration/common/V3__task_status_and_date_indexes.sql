@@ -0,0 +1,8 @@
+-- Status filters ordered by id: /tasks/status and the board's column pages (keyset on id).
+CREATE INDEX IF NOT EXISTS idx_task_status_id ON task (status, id);
+
+-- Deadlines per status: overdue and due-within queries, and pages of one status sorted by end date.
+CREATE INDEX IF NOT EXISTS idx_task_status_end_datetime ON task (status, end_datetime);
+
+-- Pages sorted by creation time; id breaks ties like the keyset cursor does.
+CREATE INDEX IF NOT EXISTS idx_task_created_datetime ON task (created_datetime, id);
@@ -0,0 +1,18 @@
+-- Change feed for /tasks/changes: every write stamps the task with the next revision, and deletes
+-- leave a tombstone row behind so clients with a local copy learn about them.
+ALTER TABLE task ADD COLUMN IF NOT EXISTS revision BIGINT;
+ALTER TABLE task ADD COLUMN IF NOT EXISTS updated_datetime TIMESTAMP(6);
+ALTER TABLE task ADD COLUMN IF NOT EXISTS deleted BOOLEAN DEFAULT FALSE NOT NULL;
+
+-- Existing tasks enter the feed in id order.
+UPDATE task SET revision = id, updated_datetime = created_datetime WHERE revision IS NULL;
+
+-- One row with the last revision handed out. Writers update it in their own transaction, so the row
+-- lock makes revisions commit in order and a client never skips a revision that commits late.
+CREATE TABLE IF NOT EXISTS task_revision (
+    revision BIGINT NOT NULL
+);
+INSERT INTO task_revision (revision) SELECT coalesce(max(revision), 0) FROM task;
+
+-- The feed reads a range of revisions in order.
+CREATE UNIQUE INDEX IF NOT EXISTS idx_task_revision ON task (revision);
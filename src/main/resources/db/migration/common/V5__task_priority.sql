@@ -0,0 +1,2 @@
+-- Priority for /tasks/next: 1 is the most urgent, 5 the least. Existing tasks get the default.
+ALTER TABLE task ADD COLUMN IF NOT EXISTS priority INTEGER DEFAULT 3 NOT NULL;
@@ -0,0 +1,8 @@
+-- Start dates per status, for the reminder window query next to idx_task_status_end_datetime.
+CREATE INDEX IF NOT EXISTS idx_task_status_start_datetime ON task (status, start_datetime);
+
+-- One row with the time up to which deadline reminders have been published. After a restart the
+-- reminders are loaded from there, so the ones missed while down are published without a table scan.
+CREATE TABLE IF NOT EXISTS reminder_watermark (
+    fired_until TIMESTAMP(6) NOT NULL
+);
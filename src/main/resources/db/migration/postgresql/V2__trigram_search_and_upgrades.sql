@@ -0,0 +1,17 @@
+-- Everything schema-postgresql.sql used to do after ddl-auto=update, so baselined databases end up
+-- with the same schema as new ones.
+
+-- Columns and sequence added after the first release; new databases already have them.
+ALTER TABLE task ADD COLUMN IF NOT EXISTS version BIGINT;
+UPDATE task SET version = 0 WHERE version IS NULL;
+CREATE SEQUENCE IF NOT EXISTS task_seq START WITH 1 INCREMENT BY 50;
+
+-- Task ids used to come from an identity column. Move task_seq past existing rows so the pooled
+-- sequence generator never hands out an id that is already taken; it is never moved backwards.
+SELECT setval('task_seq', (SELECT max(id) FROM task))
+WHERE (SELECT max(id) FROM task) > (SELECT last_value FROM task_seq);
+
+-- Trigram GIN indexes let the ranked keyword search answer LIKE '%keyword%' without a sequential scan.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_task_title_trgm ON task USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_task_description_trgm ON task USING gin (lower(description) gin_trgm_ops);
@@ -0,0 +1,5 @@
+-- "What to work on next": open tasks in (priority, end date) order. Partial, so the top-K scan of
+-- /tasks/next stops after K entries instead of stepping over every finished task, and so the index
+-- stays small as done tasks pile up. The query has to repeat both conditions literally to use it.
+CREATE INDEX IF NOT EXISTS idx_task_next ON task (priority, end_datetime, id)
+    WHERE deleted = false AND status <> 'DONE';
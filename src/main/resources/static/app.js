@@ -28,6 +28,17 @@ const selectStatus = document.getElementById("status");
 
 const themeToggle = document.getElementById("themeToggle");
 
+// --- board state ---
+const PAGE_SIZE = 100;
+const CARD_FIELDS = "id,title,status,endDatetime";
+const columns = {
+    NOT_STARTED: {body: colNotStarted, count: countNot},
+    IN_PROGRESS: {body: colInProgress, count: countProg},
+    DONE: {body: colDone, count: countDone}
+};
+let loadGeneration = 0;
+let editingETag = null; // ETag of the task open in the form, sent as If-Match on save
+
 // --- events ---
 openNew.addEventListener("click", () => openForm());
 closeModal.addEventListener("click", closeForm);
@@ -47,41 +58,78 @@ deleteBtn.addEventListener("click", async () => {
     if (!confirm("Vill du radera uppgiften?")) return;
     await fetch(`${apiBase}/${id}`, {method: "DELETE"});
     closeForm();
-    loadTasks();
+    if (!liveUpdates) loadTasks();
 });
 
-// initial load
+// initial load, then keep the board current from the server's change stream
 loadTasks();
+const liveUpdates = connectEvents();
 
 // --- FUNCTIONS ---
 async function loadTasks() {
+    const generation = ++loadGeneration;
     try {
-        const res = await fetch(apiBase);
-        const tasks = await res.json();
+        // counts and the first page of every column in one request
+        const res = await fetch(`${apiBase}/board?limit=${PAGE_SIZE}`);
+        const board = await res.json();
+        if (generation !== loadGeneration) return;
+
+        await Promise.all(Object.keys(columns).map(status => {
+            const {body, count} = columns[status];
+            const cards = board.columns[status] || [];
+            const total = board.counts[status] || 0;
+
+            body.innerHTML = "";
+            cards.forEach(renderCard);
+            count.textContent = total;
+
+            if (cards.length < total) {
+                return loadColumn(status, generation, cards[cards.length - 1].id);
+            }
+        }));
+    } catch (err) {
+        console.error("Could not load tasks", err);
+    }
+}
 
-        // clear columns
-        [colNotStarted, colInProgress, colDone].forEach(c => c.innerHTML = "");
+// fetch the rest of a column page by page (keyset pagination on id)
+async function loadColumn(status, generation, after) {
+    while (true) {
+        // only the columns a board card shows, like the first page from /board
+        const params = new URLSearchParams({status, limit: PAGE_SIZE, after, fields: CARD_FIELDS});
+        const res = await fetch(`${apiBase}?${params}`);
+        const page = await res.json();
 
-        let counts = {NOT_STARTED: 0, IN_PROGRESS: 0, DONE: 0};
+        // a newer load has started, drop this one
+        if (generation !== loadGeneration) return;
 
-        tasks.forEach(t => {
-            renderCard(t);
-            counts[t.status] = (counts[t.status] || 0) + 1;
-        });
+        page.forEach(renderCard);
 
-        countNot.textContent = counts.NOT_STARTED || 0;
-        countProg.textContent = counts.IN_PROGRESS || 0;
-        countDone.textContent = counts.DONE || 0;
-    } catch (err) {
-        console.error("Could not load tasks", err);
+        if (page.length < PAGE_SIZE) return;
+        after = page[page.length - 1].id;
     }
 }
 
+// board cards carry no description, so load the full task before editing
+async function fetchTask(id) {
+    const res = await fetch(`${apiBase}/${id}`);
+    if (!res.ok) throw new Error(`Could not load task ${id}`);
+    const task = await res.json();
+    task.eTag = res.headers.get("ETag");
+    return task;
+}
+
 function renderCard(task) {
+    const column = columns[task.status];
+    if (column) column.body.appendChild(createCard(task));
+}
+
+function createCard(task) {
     const card = document.createElement("div");
     card.className = "card";
     card.draggable = true;
     card.dataset.id = task.id;
+    card.dataset.status = task.status;
 
     const title = document.createElement("h4");
     title.textContent = task.title || "(no title)";
@@ -102,9 +150,13 @@ function renderCard(task) {
     const editBtn = document.createElement("button");
     editBtn.className = "btn";
     editBtn.textContent = "Edit";
-    editBtn.addEventListener("click", (e) => {
+    editBtn.addEventListener("click", async (e) => {
         e.stopPropagation();
-        openForm(task);
+        try {
+            openForm(await fetchTask(task.id));
+        } catch (err) {
+            console.error("Could not open task", err);
+        }
     });
 
     actions.appendChild(editBtn);
@@ -121,10 +173,46 @@ function renderCard(task) {
     });
     card.addEventListener("dragend", () => card.classList.remove("dragging"));
 
-    // append to correct column
-    if (task.status === "NOT_STARTED") colNotStarted.appendChild(card);
-    else if (task.status === "IN_PROGRESS") colInProgress.appendChild(card);
-    else if (task.status === "DONE") colDone.appendChild(card);
+    return card;
+}
+
+// --- live updates ---
+function connectEvents() {
+    if (!window.EventSource) return false;
+    // EventSource reconnects by itself and sends Last-Event-ID, so missed deltas are replayed
+    const source = new EventSource(`${apiBase}/events`);
+    source.addEventListener("task", (e) => applyDelta(JSON.parse(e.data)));
+    source.addEventListener("reset", () => loadTasks());
+    // periodic recount from the server, corrects any drift in the counts kept from deltas
+    source.addEventListener("counts", (e) => setCounts(JSON.parse(e.data)));
+    return true;
+}
+
+function applyDelta(delta) {
+    const existing = document.querySelector(`.card[data-id="${delta.id}"]`);
+    const previousStatus = existing ? existing.dataset.status : delta.previousStatus;
+    if (existing) existing.remove();
+    if (previousStatus && delta.type !== "CREATED") adjustCount(previousStatus, -1);
+
+    if (delta.type === "DELETED") return;
+    const task = delta.task;
+    const column = columns[task.status];
+    if (!column) return;
+    adjustCount(task.status, 1);
+
+    // keep id order so the card lands where a reload would put it
+    const card = createCard(task);
+    const next = Array.from(column.body.children).find(c => Number(c.dataset.id) > task.id);
+    column.body.insertBefore(card, next || null);
+}
+
+function setCounts(counts) {
+    Object.entries(columns).forEach(([status, column]) => column.count.textContent = counts[status] || 0);
+}
+
+function adjustCount(status, diff) {
+    const column = columns[status];
+    if (column) column.count.textContent = Math.max(0, Number(column.count.textContent) + diff);
 }
 
 // small meta helper
@@ -178,7 +266,7 @@ async function updateStatus(id, status) {
             headers: {"Content-Type": "application/json"},
             body: JSON.stringify(status) // send e.g. "IN_PROGRESS"
         });
-        loadTasks();
+        if (!liveUpdates) loadTasks();
     } catch (err) {
         console.error("Status update failed", err);
     }
@@ -186,6 +274,7 @@ async function updateStatus(id, status) {
 
 // --- FORM / modal ---
 function openForm(task) {
+    editingETag = task ? task.eTag : null;
     if (!task) {
         // new
         inputId.value = "";
@@ -235,12 +324,18 @@ async function saveTask() {
 
     try {
         if (id) {
-            // update
-            await fetch(`${apiBase}/${id}`, {
+            // update, but only if nobody else has changed the task since it was opened
+            const headers = {"Content-Type": "application/json"};
+            if (editingETag) headers["If-Match"] = editingETag;
+            const res = await fetch(`${apiBase}/${id}`, {
                 method: "PUT",
-                headers: {"Content-Type": "application/json"},
+                headers,
                 body: JSON.stringify(payload)
             });
+            if (res.status === 412) {
+                alert("Uppgiften har ändrats av någon annan. Öppna den igen för att se ändringarna.");
+                return;
+            }
         } else {
             // create
             await fetch(apiBase, {
@@ -250,7 +345,7 @@ async function saveTask() {
             });
         }
         closeForm();
-        loadTasks();
+        if (!liveUpdates) loadTasks();
     } catch (err) {
         console.error("Save failed", err);
     }
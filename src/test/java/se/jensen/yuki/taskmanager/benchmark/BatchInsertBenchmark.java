@@ -0,0 +1,83 @@
+package se.jensen.yuki.taskmanager.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.service.TaskService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows per second of one-by-one {@link TaskService#add(Task)} against the batched
+ * {@link TaskService#addAll(List)}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers
+class BatchInsertBenchmark {
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("my_database")
+            .withUsername("taskmanager")
+            .withPassword("pass");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareOneByOneWithBatch() {
+        // Warm up both paths before measuring.
+        tasks(1_000).forEach(taskService::add);
+        taskService.addAll(tasks(1_000));
+        jdbcTemplate.execute("TRUNCATE task");
+
+        List<Task> single = tasks(ROWS);
+        long start = System.nanoTime();
+        single.forEach(taskService::add);
+        report("one-by-one", System.nanoTime() - start);
+        jdbcTemplate.execute("TRUNCATE task");
+
+        List<Task> batch = tasks(ROWS);
+        start = System.nanoTime();
+        for (int i = 0; i < batch.size(); i += TaskService.MAX_BATCH_SIZE) {
+            taskService.addAll(batch.subList(i, Math.min(batch.size(), i + TaskService.MAX_BATCH_SIZE)));
+        }
+        report("batch", System.nanoTime() - start);
+    }
+
+    private static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task("task " + i, "Imported task number " + i, now, now, now.plusDays(i % 30)));
+        }
+        return tasks;
+    }
+
+    private static void report(String path, long nanos) {
+        System.out.printf("%-12s %8d rows %10.0f rows/s%n", path, ROWS, ROWS / (nanos / 1_000_000_000.0));
+    }
+}
@@ -0,0 +1,131 @@
+package se.jensen.yuki.taskmanager.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.repository.TaskRepository;
+import se.jensen.yuki.taskmanager.search.InvertedIndex;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the old unindexed LIKE query with the trigram indexed search and the in-memory index.
+ * Run with {@code mvn test -Pbenchmark}; table sizes can be set with {@code -Dbenchmark.sizes=10000,100000}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers
+class KeywordSearchBenchmark {
+    private static final int ITERATIONS = 20;
+    private static final int PAGE_SIZE = 50;
+    // The in-memory index is meant for the H2 dev profile; above this size it needs several GB of heap.
+    private static final int MEMORY_INDEX_MAX_SIZE = 100_000;
+    private static final List<String> KEYWORDS = List.of("deploy", "review", "x7f", "missing");
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("my_database")
+            .withUsername("taskmanager")
+            .withPassword("pass");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void compareSearchPaths() {
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.sizes", "10000,100000,1000000").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        System.out.printf("%-10s %-16s %12s %12s%n", "tasks", "path", "median ms", "p90 ms");
+        for (int size : sizes) {
+            seed(size);
+            InvertedIndex index = size <= MEMORY_INDEX_MAX_SIZE ? buildIndex() : null;
+            for (String keyword : KEYWORDS) {
+                report(size, "like/" + keyword, () -> oldLikeQuery(keyword));
+                report(size, "trgm/" + keyword, () -> taskRepository.findByKeyword(keyword, 0, PAGE_SIZE));
+                if (index != null) {
+                    report(size, "memory/" + keyword, () -> index.search(keyword, 0, PAGE_SIZE));
+                }
+            }
+        }
+    }
+
+    private void seed(int size) {
+        jdbcTemplate.execute("TRUNCATE task");
+        jdbcTemplate.update("""
+                INSERT INTO task (id, version, title, description, status, created_datetime)
+                SELECT nextval('task_seq'), 0,
+                       (ARRAY['deploy', 'review', 'plan', 'write'])[1 + g % 4] || ' ' || md5(g::text),
+                       'description ' || md5((g * 31)::text),
+                       'NOT_STARTED',
+                       now()
+                FROM generate_series(1, ?) g
+                """, size);
+        jdbcTemplate.execute("ANALYZE task");
+    }
+
+    private InvertedIndex buildIndex() {
+        InvertedIndex index = new InvertedIndex();
+        jdbcTemplate.query("SELECT id, title, description FROM task",
+                (RowCallbackHandler) rs -> index.put(rs.getLong(1), rs.getString(2), rs.getString(3)));
+        return index;
+    }
+
+    private List<Task> oldLikeQuery(String keyword) {
+        String jpql = """
+                SELECT t FROM Task t
+                WHERE LOWER(t.title) LIKE LOWER(:keyword)
+                OR LOWER(t.description) LIKE LOWER(:keyword)
+                """;
+        List<Task> tasks = em.createQuery(jpql, Task.class)
+                .setParameter("keyword", "%" + keyword + "%")
+                .getResultList();
+        em.clear();
+        return tasks;
+    }
+
+    private static void report(int size, String path, Supplier<List<?>> search) {
+        search.get();
+        long[] timings = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            search.get();
+            timings[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(timings);
+        System.out.printf("%-10d %-16s %12.2f %12.2f%n", size, path,
+                timings[ITERATIONS / 2] / 1_000_000.0, timings[ITERATIONS * 9 / 10] / 1_000_000.0);
+    }
+}
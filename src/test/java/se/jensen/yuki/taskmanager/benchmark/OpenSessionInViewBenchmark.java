@@ -0,0 +1,158 @@
+package se.jensen.yuki.taskmanager.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import se.jensen.yuki.taskmanager.TaskManagerApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection hold time and pool contention with and without Open Session in View. With it, a request
+ * keeps its connection from the first query until the response is written; without it, only for the
+ * transactions in TaskService. Reports how long connections were held (hikaricp.connections.usage),
+ * how long requests waited for one (hikaricp.connections.acquire), throughput and p99 latency.
+ * The pool is kept small so it is the bottleneck. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class OpenSessionInViewBenchmark {
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 100);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.poolSize", 8);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.seconds", 20));
+    private static final int SEED_TASKS = 5_000;
+    // Responses with many rows, where writing the response takes longest.
+    private static final List<String> PATHS = List.of(
+            "/tasks/overdue?limit=500", "/tasks/due?days=30&limit=500", "/tasks/keyword?keyword=review&size=500",
+            "/tasks/1", "/tasks/changes?since=0&limit=1000");
+
+    @Test
+    void compareOpenSessionInView() throws Exception {
+        System.out.printf("%-6s %8s %12s %10s %12s %12s%n",
+                "osiv", "clients", "req/s", "p99 ms", "held ms", "waited ms");
+        run(true);
+        run(false);
+    }
+
+    private void run(boolean openInView) throws Exception {
+        String database = "osiv" + openInView;
+        Map<String, Object> properties = new HashMap<>(Map.of(
+                "server.port", "0",
+                "spring.datasource.url", "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "spring.datasource.username", "sa",
+                "spring.datasource.password", "",
+                "spring.datasource.driver-class-name", "org.h2.Driver",
+                "spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql", "false",
+                "spring.jpa.open-in-view", Boolean.toString(openInView),
+                "spring.datasource.hikari.maximum-pool-size", Integer.toString(POOL_SIZE),
+                "logging.level.root", "WARN"));
+
+        // Command line arguments, so they take precedence over application.properties.
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .run(args)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            seed(client, port);
+            // Warm up, then measure.
+            drive(client, port, Duration.ofSeconds(5));
+            Snapshot held = Snapshot.of(registry.get("hikaricp.connections.usage").timer());
+            Snapshot waited = Snapshot.of(registry.get("hikaricp.connections.acquire").timer());
+            List<Long> latencies = drive(client, port, DURATION);
+            System.out.printf("%-6s %8d %12.0f %10.1f %12.3f %12.3f%n", openInView, CLIENTS,
+                    latencies.size() / (DURATION.toMillis() / 1000.0), percentile(latencies, 0.99),
+                    held.meanSince(registry.get("hikaricp.connections.usage").timer()),
+                    waited.meanSince(registry.get("hikaricp.connections.acquire").timer()));
+        }
+    }
+
+    private void seed(HttpClient client, int port) throws Exception {
+        String[] statuses = {"NOT_STARTED", "IN_PROGRESS", "DONE"};
+        for (int start = 0; start < SEED_TASKS; start += 1_000) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = start; i < start + 1_000; i++) {
+                if (i > start) {
+                    body.append(',');
+                }
+                body.append("{\"title\":\"").append(i % 5 == 0 ? "review" : "task").append(' ').append(i)
+                        .append("\",\"description\":\"Seeded task\",\"status\":\"").append(statuses[i % 3])
+                        .append("\",\"endDatetime\":\"")
+                        .append(i % 2 == 0 ? "2020-01-01T00:00:00" : "2999-01-01T00:00:00")
+                        .append("\"}");
+            }
+            body.append(']');
+            client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tasks/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    private List<Long> drive(HttpClient client, int port, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int offset = c;
+                futures.add(clients.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    int i = offset;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + PATHS.get(i++ % PATHS.size()))).build();
+                        long start = System.nanoTime();
+                        client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies.add(System.nanoTime() - start);
+                    }
+                    return latencies;
+                }));
+            }
+        }
+        List<Long> latencies = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            latencies.addAll(future.get());
+        }
+        latencies.sort(null);
+        return latencies;
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1)) / 1_000_000.0;
+    }
+
+    /**
+     * Pool timers count from startup; the difference between two snapshots covers only the measured run.
+     */
+    private record Snapshot(long count, double totalMillis) {
+
+        static Snapshot of(Timer timer) {
+            return new Snapshot(timer.count(), timer.totalTime(TimeUnit.MILLISECONDS));
+        }
+
+        double meanSince(Timer timer) {
+            long samples = timer.count() - count;
+            return samples == 0 ? 0 : (timer.totalTime(TimeUnit.MILLISECONDS) - totalMillis) / samples;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package se.jensen.yuki.taskmanager.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskSort;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import se.jensen.yuki.taskmanager.repository.TaskRepository;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Database round trips of a read-heavy workload with and without the second-level and query cache.
+ * Every request lists one status column, reads the first page and loads a task by id; one request in
+ * {@code -Dbenchmark.writeEvery} (default 100) also changes a status, which invalidates the cached
+ * query results. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers
+class SecondLevelCacheBenchmark {
+    private static final int TASKS = 5_000;
+    private static final int HOT_TASKS = 500;
+    private static final int PAGE_SIZE = 50;
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 5_000);
+    private static final int WRITE_EVERY = Integer.getInteger("benchmark.writeEvery", 100);
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("my_database")
+            .withUsername("taskmanager")
+            .withPassword("pass");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.cache.use_second_level_cache", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.cache.use_query_cache", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.cache.region.factory_class", () -> "jcache");
+        registry.add("spring.jpa.properties.hibernate.javax.cache.provider",
+                () -> "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+        registry.add("spring.jpa.properties.hibernate.javax.cache.uri", () -> "hibernate-jcache.conf");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareWithAndWithoutCache() {
+        seed();
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        System.out.printf("%-8s %10s %14s %12s %12s%n", "cache", "requests/s", "statements/req",
+                "entity hit%", "query hit%");
+
+        // IGNORE neither reads nor writes the caches, the same as running without them.
+        run("off", CacheMode.IGNORE, statistics);
+        run("on", CacheMode.NORMAL, statistics);
+
+        assertCachedReadsSeeWrites();
+    }
+
+    private void seed() {
+        jdbcTemplate.execute("TRUNCATE task");
+        jdbcTemplate.update("""
+                INSERT INTO task (id, version, title, description, status, created_datetime, end_datetime)
+                SELECT nextval('task_seq'), 0, 'task ' || g, 'description ' || md5(g::text),
+                       (ARRAY['NOT_STARTED', 'IN_PROGRESS', 'DONE'])[1 + g % 3],
+                       now(), now() + (g % 30) * interval '1 day'
+                FROM generate_series(1, ?) g
+                """, TASKS);
+        jdbcTemplate.execute("ANALYZE task");
+        // Rows were written behind Hibernate's back.
+        emf.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private void run(String name, CacheMode mode, Statistics statistics) {
+        List<Long> hotIds = jdbcTemplate.queryForList("SELECT id FROM task ORDER BY id LIMIT ?", Long.class,
+                HOT_TASKS);
+        // Warm up, then measure.
+        drive(mode, hotIds, REQUESTS / 10);
+        statistics.clear();
+        long start = System.nanoTime();
+        drive(mode, hotIds, REQUESTS);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("%-8s %10.0f %14.2f %12.1f %12.1f%n", name, REQUESTS / seconds,
+                (double) statistics.getPrepareStatementCount() / REQUESTS,
+                percent(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()),
+                percent(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+    }
+
+    private void drive(CacheMode mode, List<Long> hotIds, int requests) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 1; i <= requests; i++) {
+            boolean write = i % WRITE_EVERY == 0;
+            Long id = hotIds.get(random.nextInt(hotIds.size()));
+            TaskStatus status = STATUSES[random.nextInt(STATUSES.length)];
+            transaction.executeWithoutResult(tx -> {
+                em.unwrap(Session.class).setCacheMode(mode);
+                taskRepository.findByStatus(TaskStatus.IN_PROGRESS);
+                taskRepository.findPage(null, TaskSort.ID, null, PAGE_SIZE);
+                Task task = taskRepository.findById(id).orElseThrow();
+                if (write) {
+                    task.setStatus(status);
+                }
+            });
+        }
+    }
+
+    /**
+     * A status change committed after a query was cached must show up in the next run of that query.
+     */
+    private void assertCachedReadsSeeWrites() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long id = transaction.execute(tx -> taskRepository.findByStatus(TaskStatus.DONE).get(0).getId());
+        transaction.executeWithoutResult(tx -> taskRepository.findById(id).orElseThrow()
+                .setStatus(TaskStatus.IN_PROGRESS));
+
+        long cached = transaction.execute(tx -> taskRepository.findByStatus(TaskStatus.DONE).stream()
+                .filter(task -> task.getId().equals(id))
+                .count());
+        assertEquals(0, cached);
+    }
+
+    private static double percent(long hits, long misses) {
+        return hits + misses == 0 ? 0 : 100.0 * hits / (hits + misses);
+    }
+}
@@ -0,0 +1,133 @@
+package se.jensen.yuki.taskmanager.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import se.jensen.yuki.taskmanager.dto.BatchResult;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import se.jensen.yuki.taskmanager.service.StatusWriteBuffer;
+import se.jensen.yuki.taskmanager.service.TaskService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+
+/**
+ * Sustained status changes per second from many concurrent clients, written one by one through
+ * {@link TaskService#updateStatus} against the coalescing {@link StatusWriteBuffer}. The buffered
+ * run includes the final flush, so both numbers count acknowledged changes whose end state is in
+ * the database.
+ * Run with {@code mvn test -Pbenchmark}; {@code -Dbenchmark.clients} and {@code -Dbenchmark.seconds}
+ * change the load.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers
+class StatusChangeBenchmark {
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 64);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.seconds", 20));
+    private static final int TASKS = 2_000;
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("my_database")
+            .withUsername("taskmanager")
+            .withPassword("pass");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void compareDirectWithWriteBehind() throws Exception {
+        List<Long> ids = seed();
+        System.out.printf("%-14s %8s %14s%n", "path", "clients", "changes/s");
+
+        run("direct", ids, (id, status) -> taskService.updateStatus(id, status), null);
+
+        StatusWriteBuffer buffer = new StatusWriteBuffer(taskService, true, Duration.ofMillis(200), 500);
+        try {
+            run("write-behind", ids, buffer::submit, buffer);
+        } finally {
+            buffer.shutdown();
+        }
+    }
+
+    private List<Long> seed() {
+        List<Task> tasks = new ArrayList<>(TASKS);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(new Task("task " + i, "Seeded task", now, now, now.plusDays(i % 30)));
+        }
+        return taskService.addAll(tasks).stream()
+                .map(BatchResult::id)
+                .toList();
+    }
+
+    private void run(String path, List<Long> ids, BiConsumer<Long, TaskStatus> change, StatusWriteBuffer buffer)
+            throws Exception {
+        // Warm up, then measure.
+        drive(ids, change, Duration.ofSeconds(3));
+        if (buffer != null) {
+            drain(buffer);
+        }
+        long start = System.nanoTime();
+        long changes = drive(ids, change, DURATION);
+        if (buffer != null) {
+            drain(buffer);
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("%-14s %8d %14.0f%n", path, CLIENTS, changes / seconds);
+    }
+
+    private static long drive(List<Long> ids, BiConsumer<Long, TaskStatus> change, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Long>> futures = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long count = 0;
+                    while (System.nanoTime() < deadline) {
+                        change.accept(ids.get(random.nextInt(ids.size())), STATUSES[random.nextInt(STATUSES.length)]);
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+        }
+        long total = 0;
+        for (Future<Long> future : futures) {
+            total += future.get();
+        }
+        return total;
+    }
+
+    private static void drain(StatusWriteBuffer buffer) {
+        while (buffer.pendingCount() > 0) {
+            buffer.flush();
+        }
+    }
+}
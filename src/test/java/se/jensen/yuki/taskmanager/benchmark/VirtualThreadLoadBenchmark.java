@@ -0,0 +1,137 @@
+package se.jensen.yuki.taskmanager.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import se.jensen.yuki.taskmanager.TaskManagerApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop load test of the read endpoints with platform threads (Tomcat's 200 worker pool)
+ * and with the "virtual" profile. Reports throughput, p50/p99 latency and rejected requests.
+ * Run with {@code mvn test -Pbenchmark}; concurrency can be set with {@code -Dbenchmark.clients=800}.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmark {
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.seconds", 20));
+    private static final int SEED_TASKS = 5_000;
+    private static final List<String> PATHS = List.of(
+            "/tasks/board?limit=50", "/tasks/keyword?keyword=review&size=50", "/tasks/status?status=DONE",
+            "/tasks/1", "/tasks?status=IN_PROGRESS&limit=100");
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        System.out.printf("%-10s %8s %12s %10s %10s %10s%n", "mode", "clients", "req/s", "p50 ms", "p99 ms", "503s");
+        run("platform", Map.of("spring.threads.virtual.enabled", "false"));
+        run("virtual", Map.of("spring.profiles.active", "virtual"));
+    }
+
+    private void run(String mode, Map<String, Object> modeProperties) throws Exception {
+        Map<String, Object> properties = new HashMap<>(Map.of(
+                "server.port", "0",
+                "spring.datasource.url", "jdbc:h2:mem:" + mode + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "spring.datasource.username", "sa",
+                "spring.datasource.password", "",
+                "spring.datasource.driver-class-name", "org.h2.Driver",
+                "spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql", "false",
+                "logging.level.root", "WARN"));
+        properties.putAll(modeProperties);
+
+        // Command line arguments, so they take precedence over application.properties.
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .run(args)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            seed(client, port);
+            // Warm up, then measure.
+            drive(client, port, Duration.ofSeconds(5));
+            Result result = drive(client, port, DURATION);
+            System.out.printf("%-10s %8d %12.0f %10.1f %10.1f %10d%n", mode, CLIENTS,
+                    result.latencies.size() / (DURATION.toMillis() / 1000.0),
+                    result.percentile(0.50), result.percentile(0.99), result.rejected);
+        }
+    }
+
+    private void seed(HttpClient client, int port) throws Exception {
+        String[] statuses = {"NOT_STARTED", "IN_PROGRESS", "DONE"};
+        for (int start = 0; start < SEED_TASKS; start += 1_000) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = start; i < start + 1_000; i++) {
+                if (i > start) {
+                    body.append(',');
+                }
+                body.append("{\"title\":\"").append(i % 5 == 0 ? "review" : "task").append(' ').append(i)
+                        .append("\",\"description\":\"Seeded task\",\"status\":\"").append(statuses[i % 3])
+                        .append("\"}");
+            }
+            body.append(']');
+            client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tasks/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    private Result drive(HttpClient client, int port, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int offset = c;
+                futures.add(clients.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    int i = offset;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + PATHS.get(i++ % PATHS.size()))).build();
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                        } else {
+                            latencies.add(System.nanoTime() - start);
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+        }
+        List<Long> latencies = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            latencies.addAll(future.get());
+        }
+        latencies.sort(null);
+        return new Result(latencies, rejected.get());
+    }
+
+    private record Result(List<Long> latencies, int rejected) {
+
+        double percentile(double p) {
+            if (latencies.isEmpty()) {
+                return 0;
+            }
+            return latencies.get((int) Math.min(latencies.size() - 1, Math.ceil(p * latencies.size()) - 1))
+                    / 1_000_000.0;
+        }
+    }
+}
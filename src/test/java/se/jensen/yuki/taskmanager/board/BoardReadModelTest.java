@@ -0,0 +1,218 @@
+package se.jensen.yuki.taskmanager.board;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.jensen.yuki.taskmanager.dto.BoardSummary;
+import se.jensen.yuki.taskmanager.dto.TaskListVersion;
+import se.jensen.yuki.taskmanager.dto.TaskView;
+import se.jensen.yuki.taskmanager.event.TaskChangedEvent;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskSort;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import se.jensen.yuki.taskmanager.repository.TaskRepository;
+import se.jensen.yuki.taskmanager.search.InMemoryTaskSearchIndex;
+import se.jensen.yuki.taskmanager.service.TaskService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BoardReadModelTest {
+    @Mock
+    TaskRepository taskRepository;
+    @Mock
+    InMemoryTaskSearchIndex searchIndex;
+
+    BoardReadModel boardReadModel;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(taskRepository.findPage(isNull(), any(TaskSort.class), isNull(), anyInt()))
+                .thenReturn(List.of(task(1L, 1L, TaskStatus.NOT_STARTED), task(2L, 2L, TaskStatus.DONE)));
+        boardReadModel = new BoardReadModel(taskRepository, true);
+        boardReadModel.warmUp();
+    }
+
+    @Test
+    @DisplayName("Serve tasks and board counts from memory after warm up")
+    void serveFromMemory() {
+        // Act
+        List<TaskView> all = boardReadModel.findAll().orElseThrow();
+        BoardSummary board = boardReadModel.findBoard(10).orElseThrow();
+
+        // Assert
+        assertEquals(List.of(1L, 2L), all.stream().map(TaskView::id).toList());
+        assertEquals(1L, board.counts().get(TaskStatus.DONE));
+        assertEquals(0L, board.counts().get(TaskStatus.IN_PROGRESS));
+        assertTrue(boardReadModel.findListETag(null).orElseThrow().startsWith("W/\""));
+        assertTrue(boardReadModel.isServing());
+    }
+
+    @Test
+    @DisplayName("Change the list ETag even when count, highest id and version sum stay the same")
+    void eTagChangesWithSameFingerprint() {
+        // Arrange
+        boardReadModel.onTaskChanged(TaskChangedEvent.created(task(60L, 3L, TaskStatus.NOT_STARTED)));
+        Task updated = task(2L, 4L, TaskStatus.DONE);
+        updated.setVersion(1L);
+        boardReadModel.onTaskChanged(TaskChangedEvent.updated(updated, TaskStatus.DONE));
+        String before = boardReadModel.findListETag(null).orElseThrow();
+
+        // Act
+        Task other = task(1L, 5L, TaskStatus.NOT_STARTED);
+        other.setVersion(1L);
+        boardReadModel.onTaskChanged(TaskChangedEvent.updated(other, TaskStatus.NOT_STARTED));
+        boardReadModel.onTaskChanged(TaskChangedEvent.deleted(2L, TaskStatus.DONE, 6L));
+        boardReadModel.onTaskChanged(TaskChangedEvent.created(task(5L, 7L, TaskStatus.NOT_STARTED)));
+        String after = boardReadModel.findListETag(null).orElseThrow();
+
+        // Assert
+        assertEquals(List.of(1L, 5L, 60L), boardReadModel.findAll().orElseThrow().stream().map(TaskView::id).toList());
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    @DisplayName("Move a task between statuses on a status change")
+    void applyStatusChange() {
+        // Act
+        boardReadModel.onTaskChanged(TaskChangedEvent.statusChanged(task(1L, 3L, TaskStatus.IN_PROGRESS),
+                TaskStatus.NOT_STARTED));
+
+        // Assert
+        assertTrue(boardReadModel.findByStatus(TaskStatus.NOT_STARTED).orElseThrow().isEmpty());
+        assertEquals(List.of(1L), boardReadModel.findByStatus(TaskStatus.IN_PROGRESS).orElseThrow().stream()
+                .map(TaskView::id).toList());
+    }
+
+    @Test
+    @DisplayName("Ignore an event older than the revision already applied")
+    void ignoreOutdatedEvent() {
+        // Arrange
+        boardReadModel.onTaskChanged(TaskChangedEvent.deleted(2L, TaskStatus.DONE, 5L));
+
+        // Act
+        boardReadModel.onTaskChanged(TaskChangedEvent.statusChanged(task(1L, 4L, TaskStatus.DONE),
+                TaskStatus.NOT_STARTED));
+        boardReadModel.onTaskChanged(TaskChangedEvent.updated(task(1L, 3L, TaskStatus.IN_PROGRESS),
+                TaskStatus.NOT_STARTED));
+
+        // Assert
+        assertEquals(List.of(1L), boardReadModel.findByStatus(TaskStatus.DONE).orElseThrow().stream()
+                .map(TaskView::id).toList());
+        assertTrue(boardReadModel.findByStatus(TaskStatus.IN_PROGRESS).orElseThrow().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Keep a deleted task deleted when an older update arrives after the delete")
+    void ignoreUpdateAfterDelete() {
+        // Arrange
+        boardReadModel.onTaskChanged(TaskChangedEvent.deleted(1L, TaskStatus.NOT_STARTED, 5L));
+
+        // Act
+        boardReadModel.onTaskChanged(TaskChangedEvent.updated(task(1L, 4L, TaskStatus.IN_PROGRESS),
+                TaskStatus.NOT_STARTED));
+
+        // Assert
+        assertEquals(List.of(2L), boardReadModel.findAll().orElseThrow().stream().map(TaskView::id).toList());
+        assertTrue(boardReadModel.findByStatus(TaskStatus.IN_PROGRESS).orElseThrow().isEmpty());
+        assertTrue(boardReadModel.findNext(10).orElseThrow().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Apply the tasks of a batch update with the revisions they were saved with")
+    void applyBatchUpdate() {
+        // Arrange
+        TaskService taskService = new TaskService(taskRepository,
+                event -> boardReadModel.onTaskChanged((TaskChangedEvent) event), searchIndex, boardReadModel);
+        Mockito.when(taskRepository.findAllById(List.of(1L, 2L)))
+                .thenReturn(List.of(task(1L, 1L, TaskStatus.NOT_STARTED), task(2L, 2L, TaskStatus.DONE)));
+        Mockito.when(taskRepository.reserveRevisions(2)).thenReturn(10L);
+        Task first = task(1L, 1L, TaskStatus.IN_PROGRESS);
+        first.setTitle("renamed");
+        Task second = task(2L, 2L, TaskStatus.DONE);
+        second.setTitle("renamed too");
+
+        // Act
+        taskService.updateAll(List.of(first, second));
+
+        // Assert
+        assertEquals(List.of("renamed", "renamed too"), boardReadModel.findAll().orElseThrow().stream()
+                .map(TaskView::title).toList());
+        assertEquals(List.of(1L), boardReadModel.findByStatus(TaskStatus.IN_PROGRESS).orElseThrow().stream()
+                .map(TaskView::id).toList());
+    }
+
+    @Test
+    @DisplayName("List open tasks by priority and follow priority changes")
+    void findNextInPriorityOrder() {
+        // Arrange
+        Task urgent = task(3L, 3L, TaskStatus.IN_PROGRESS);
+        urgent.setPriority(Task.HIGHEST_PRIORITY);
+        boardReadModel.onTaskChanged(TaskChangedEvent.created(urgent));
+        Task demoted = task(3L, 4L, TaskStatus.IN_PROGRESS);
+        demoted.setPriority(Task.LOWEST_PRIORITY);
+
+        // Act
+        List<TaskView> before = boardReadModel.findNext(10).orElseThrow();
+        boardReadModel.onTaskChanged(TaskChangedEvent.updated(demoted, TaskStatus.IN_PROGRESS));
+        List<TaskView> after = boardReadModel.findNext(1).orElseThrow();
+
+        // Assert
+        assertEquals(List.of(3L, 1L), before.stream().map(TaskView::id).toList());
+        assertEquals(List.of(1L), after.stream().map(TaskView::id).toList());
+    }
+
+    @Test
+    @DisplayName("Rebuild from the database when the model keeps differing from it")
+    void rebuildWhenInconsistent() {
+        // Arrange
+        Mockito.when(taskRepository.findListVersion(null)).thenReturn(new TaskListVersion(3, 3, 0));
+
+        // Act
+        boardReadModel.checkConsistency();
+        verify(taskRepository, times(1)).findPage(isNull(), any(TaskSort.class), isNull(), anyInt());
+        boardReadModel.checkConsistency();
+
+        // Assert
+        verify(taskRepository, times(2)).findPage(isNull(), any(TaskSort.class), isNull(), anyInt());
+        assertTrue(boardReadModel.findAll().isPresent());
+    }
+
+    @Test
+    @DisplayName("Fall back to the database when the model is disabled")
+    void disabledModelIsEmpty() {
+        // Arrange
+        BoardReadModel disabled = new BoardReadModel(taskRepository, false);
+
+        // Act
+        disabled.warmUp();
+
+        // Assert
+        assertTrue(disabled.findAll().isEmpty());
+        assertTrue(disabled.findBoard(10).isEmpty());
+        assertFalse(disabled.isServing());
+    }
+
+    private static Task task(Long id, Long revision, TaskStatus status) {
+        Task task = new Task(id, "test" + id, "This is test",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        task.setStatus(status);
+        task.touch(revision, LocalDateTime.now());
+        return task;
+    }
+}
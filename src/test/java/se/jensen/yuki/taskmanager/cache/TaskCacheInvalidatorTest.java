@@ -0,0 +1,71 @@
+package se.jensen.yuki.taskmanager.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import se.jensen.yuki.taskmanager.config.CacheConfig;
+import se.jensen.yuki.taskmanager.event.TaskChangedEvent;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TaskCacheInvalidatorTest {
+    Cache tasks;
+    Cache tasksByStatus;
+    TaskCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager =
+                new ConcurrentMapCacheManager(CacheConfig.TASKS_CACHE, CacheConfig.TASKS_BY_STATUS_CACHE);
+        tasks = cacheManager.getCache(CacheConfig.TASKS_CACHE);
+        tasksByStatus = cacheManager.getCache(CacheConfig.TASKS_BY_STATUS_CACHE);
+        invalidator = new TaskCacheInvalidator(cacheManager);
+
+        tasks.put(1L, "task 1");
+        tasks.put(2L, "task 2");
+        for (TaskStatus status : TaskStatus.values()) {
+            tasksByStatus.put(status, List.of());
+        }
+    }
+
+    @Test
+    @DisplayName("Status change evicts the task and the old and new status lists only")
+    void statusChangeEvictsAffectedEntries() {
+        // Arrange
+        Task task = new Task(1L, "test", "This is test",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        task.setStatus(TaskStatus.DONE);
+
+        // Act
+        invalidator.onTaskChanged(TaskChangedEvent.statusChanged(task, TaskStatus.NOT_STARTED));
+
+        // Assert
+        assertNull(tasks.get(1L));
+        assertNotNull(tasks.get(2L));
+        assertNull(tasksByStatus.get(TaskStatus.NOT_STARTED));
+        assertNull(tasksByStatus.get(TaskStatus.DONE));
+        assertNotNull(tasksByStatus.get(TaskStatus.IN_PROGRESS));
+    }
+
+    @Test
+    @DisplayName("Delete without a known status evicts every status list")
+    void deleteEvictsAllStatusLists() {
+        // Act
+        invalidator.onTaskChanged(TaskChangedEvent.deleted(2L, null));
+
+        // Assert
+        assertNull(tasks.get(2L));
+        assertNotNull(tasks.get(1L));
+        for (TaskStatus status : TaskStatus.values()) {
+            assertNull(tasksByStatus.get(status));
+        }
+    }
+}
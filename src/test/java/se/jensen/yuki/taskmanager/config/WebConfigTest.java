@@ -0,0 +1,67 @@
+package se.jensen.yuki.taskmanager.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class WebConfigTest {
+    AnnotationConfigWebApplicationContext context;
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(Config.class);
+        context.refresh();
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Cache hashed script names for a year and revalidate the plain names")
+    void immutableOnlyWhenVersioned() throws Exception {
+        // Arrange
+        String versioned = context.getBean(ResourceUrlProvider.class).getForLookupPath("/app.js");
+
+        // Act & Assert
+        assertTrue(versioned.matches("/app-[0-9a-f]{32}\\.js"), versioned);
+        mockMvc.perform(get(versioned))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+        mockMvc.perform(get("/app.js"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"));
+        mockMvc.perform(get("/app-00000000000000000000000000000000.js"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Configuration
+    @EnableWebMvc
+    static class Config {
+        @Bean
+        WebConfig webConfig() {
+            return new WebConfig(0, Duration.ofMillis(500));
+        }
+    }
+}
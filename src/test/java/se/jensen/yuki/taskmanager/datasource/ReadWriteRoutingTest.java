@@ -0,0 +1,179 @@
+package se.jensen.yuki.taskmanager.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import se.jensen.yuki.taskmanager.dto.TaskView;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskField;
+import se.jensen.yuki.taskmanager.service.TaskService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two unconnected PostgreSQL instances stand in for the primary and a replica, so a read shows which
+ * one it went to: a task only exists on the primary.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers
+class ReadWriteRoutingTest {
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("my_database")
+            .withUsername("taskmanager")
+            .withPassword("pass");
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("my_database")
+            .withUsername("taskmanager")
+            .withPassword("pass");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("taskmanager.datasource.routing", () -> "true");
+        registry.add("taskmanager.datasource.replica-urls", replica::getJdbcUrl);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @BeforeAll
+    static void migrateReplica() {
+        // A real replica gets the schema from the primary.
+        Flyway.configure()
+                .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .load()
+                .migrate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Read-only calls go to the replica and writes to the primary")
+    void readsFromReplica() {
+        // Arrange
+        String title = UUID.randomUUID().toString();
+
+        // Act
+        taskService.add(newTask(title));
+
+        // Assert
+        assertFalse(taskService.getAllTaskViews(TaskField.ALL).stream().anyMatch(task -> title.equals(task.title())));
+    }
+
+    @Test
+    @DisplayName("The request that wrote reads from the primary and gets the read-your-writes cookie")
+    void writingRequestReadsFromPrimary() {
+        // Arrange
+        String title = UUID.randomUUID().toString();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), response));
+
+        // Act
+        taskService.add(newTask(title));
+
+        // Assert
+        assertTrue(taskService.getAllTaskViews(TaskField.ALL).stream().anyMatch(task -> title.equals(task.title())));
+        String cookie = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertNotNull(cookie);
+        assertTrue(cookie.startsWith(ReadYourWrites.COOKIE_NAME + "="));
+    }
+
+    @Test
+    @DisplayName("A later request with the cookie reads from the primary until it expires")
+    void cookieReadsFromPrimary() {
+        // Arrange
+        String title = UUID.randomUUID().toString();
+        taskService.add(newTask(title));
+        MockHttpServletRequest pinned = new MockHttpServletRequest();
+        pinned.setCookies(new Cookie(ReadYourWrites.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() + 60_000)));
+        MockHttpServletRequest expired = new MockHttpServletRequest();
+        expired.setCookies(new Cookie(ReadYourWrites.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() - 1)));
+
+        // Act
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(pinned));
+        boolean foundPinned = taskService.getAllTaskViews(TaskField.ALL).stream().anyMatch(task -> title.equals(task.title()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(expired));
+        boolean foundExpired = taskService.getAllTaskViews(TaskField.ALL).stream().anyMatch(task -> title.equals(task.title()));
+
+        // Assert
+        assertTrue(foundPinned);
+        assertFalse(foundExpired);
+    }
+
+    @Test
+    @DisplayName("Cached reads are filled from the primary")
+    void cachedReadsFromPrimary() {
+        // Arrange
+        String title = UUID.randomUUID().toString();
+        Task task = taskService.add(newTask(title));
+
+        // Act
+        Optional<TaskView> byId = taskService.getById(task.getId());
+        List<TaskView> byStatus = taskService.findViewsByStatus(task.getStatus());
+
+        // Assert
+        assertTrue(byId.isPresent());
+        assertTrue(byStatus.stream().anyMatch(view -> title.equals(view.title())));
+    }
+
+    @Test
+    @DisplayName("The list ETag and the list read with it come from the same database")
+    void eTagAndBodyFromSameDatabase() {
+        // Arrange
+        String title = UUID.randomUUID().toString();
+        taskService.add(newTask(title));
+        String replicaETag = taskService.getListETag(null);
+
+        // Act
+        List<TaskView> body = new ArrayList<>();
+        String eTag = taskService.readWithListETag(null, listETag -> {
+            body.addAll(taskService.getAllTaskViews(TaskField.ALL));
+            return listETag;
+        });
+
+        // Assert
+        assertEquals(replicaETag, eTag);
+        assertFalse(body.stream().anyMatch(view -> title.equals(view.title())));
+    }
+
+    private static Task newTask(String title) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Task(title, "routing", now, now, now.plusDays(1));
+    }
+}
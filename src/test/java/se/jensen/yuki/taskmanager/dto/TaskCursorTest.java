@@ -0,0 +1,46 @@
+package se.jensen.yuki.taskmanager.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import se.jensen.yuki.taskmanager.model.TaskSort;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskCursorTest {
+
+    @Test
+    @DisplayName("Read back the sort value and id of a cursor, to the nanosecond")
+    void roundTrip() {
+        // Arrange
+        LocalDateTime end = LocalDateTime.of(2026, 3, 2, 10, 0, 0, 123_456_789);
+        TaskView task = new TaskView(42L, "test", null, null, null, end, TaskStatus.NOT_STARTED, 3, 0L);
+        TaskView noEnd = new TaskView(43L, "test", null, null, null, null, TaskStatus.NOT_STARTED, 3, 0L);
+
+        // Act
+        String cursor = TaskCursor.after(task, TaskSort.END_DATETIME).format(TaskSort.END_DATETIME);
+        String nullCursor = TaskCursor.after(noEnd, TaskSort.END_DATETIME).format(TaskSort.END_DATETIME);
+
+        // Assert
+        assertEquals("2026-03-02T10:00:00.123456789_42", cursor);
+        assertEquals(new TaskCursor(end, 42L), TaskCursor.parse(cursor, TaskSort.END_DATETIME));
+        assertEquals("_43", nullCursor);
+        assertEquals(new TaskCursor(null, 43L), TaskCursor.parse(nullCursor, TaskSort.END_DATETIME));
+        assertEquals(TaskCursor.of(42L), TaskCursor.parse("42", TaskSort.ID));
+        assertNull(TaskCursor.parse(null, TaskSort.CREATED_DATETIME));
+    }
+
+    @Test
+    @DisplayName("Fail parsing a cursor that doesn't fit the sort or is malformed")
+    void parseFail() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.parse("42", TaskSort.END_DATETIME));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.parse("_42", TaskSort.ID));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.parse("yesterday_42", TaskSort.CREATED_DATETIME));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.parse("0", TaskSort.ID));
+    }
+}
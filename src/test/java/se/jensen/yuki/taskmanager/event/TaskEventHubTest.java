@@ -0,0 +1,252 @@
+package se.jensen.yuki.taskmanager.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskEventHubTest {
+    TaskEventHub hub;
+    RecordingEmitter emitter;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        hub = new TaskEventHub(JsonMapper.builder().build(), 1024, 4096);
+        emitter = new RecordingEmitter();
+        hub.subscribe(emitter, null);
+        awaitSubscribed();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    @DisplayName("Drop a status change that arrives after the delete it committed before")
+    void dropOutdatedChange() throws InterruptedException {
+        // Arrange
+        Task task = task(1L, TaskStatus.IN_PROGRESS, 10L);
+
+        // Act
+        hub.onTaskChanged(TaskChangedEvent.deleted(1L, TaskStatus.IN_PROGRESS, 11L));
+        hub.onTaskChanged(TaskChangedEvent.statusChanged(task, TaskStatus.NOT_STARTED));
+        hub.publishCounts(Map.of(TaskStatus.NOT_STARTED, 0L));
+
+        // Assert
+        List<String> events = emitter.await(2);
+        assertTrue(events.get(0).contains("event:task") && events.get(0).contains("\"DELETED\""));
+        assertTrue(events.get(1).contains("event:counts"));
+    }
+
+    @Test
+    @DisplayName("Send the changes of one task in revision order when they come in concurrently")
+    void concurrentChanges() throws InterruptedException {
+        // Arrange
+        int writers = 8;
+        int changesPerWriter = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Act
+        for (int writer = 0; writer < writers; writer++) {
+            int first = writer * changesPerWriter;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (long revision = first + 1; revision <= first + changesPerWriter; revision++) {
+                    hub.onTaskChanged(TaskChangedEvent.updated(task(1L, TaskStatus.IN_PROGRESS, revision),
+                            TaskStatus.IN_PROGRESS));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        hub.publishCounts(Map.of());
+        List<String> events = emitter.awaitEvent("event:counts");
+
+        // Assert
+        List<Long> revisions = events.stream()
+                .filter(event -> event.contains("event:task"))
+                .map(TaskEventHubTest::revision)
+                .toList();
+        assertEquals(revisions.stream().sorted().distinct().toList(), revisions);
+        assertEquals((long) writers * changesPerWriter, revisions.getLast());
+    }
+
+    @Test
+    @DisplayName("Keep sending to other subscribers while one stops reading, then reset and drop it")
+    void dropStalledSubscriber() throws InterruptedException {
+        // Arrange
+        hub.shutdown();
+        hub = new TaskEventHub(JsonMapper.builder().build(), 1024, 16);
+        emitter = new RecordingEmitter();
+        hub.subscribe(emitter, null);
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(unblock);
+        hub.subscribe(stalled, null);
+        awaitSubscribed(2);
+
+        // Act
+        List<String> events = List.of();
+        for (int i = 0; i < 100; i++) {
+            hub.publishCounts(Map.of(TaskStatus.DONE, (long) i));
+            events = emitter.await(i + 1);
+        }
+        awaitSubscribed(1);
+        unblock.countDown();
+        List<String> stalledEvents = stalled.awaitEvent("event:reset");
+
+        // Assert
+        assertEquals(100, events.size());
+        assertTrue(stalledEvents.size() < 100);
+        assertTrue(stalledEvents.getLast().contains("event:reset"));
+        assertTrue(stalled.completed);
+    }
+
+    @Test
+    @DisplayName("Replay missed events for an id of this run and reset for any other id")
+    void resumeOrReset() throws InterruptedException {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            hub.publishCounts(Map.of(TaskStatus.DONE, (long) i));
+        }
+        String firstId = id(emitter.await(3).getFirst());
+        RecordingEmitter resumed = new RecordingEmitter();
+        RecordingEmitter restarted = new RecordingEmitter();
+        RecordingEmitter foreign = new RecordingEmitter();
+
+        // Act
+        hub.subscribe(resumed, firstId);
+        hub.subscribe(restarted, "1");
+        hub.subscribe(foreign, "other-" + firstId.substring(firstId.lastIndexOf('-') + 1));
+        awaitSubscribed(4);
+
+        // Assert
+        List<String> replayed = resumed.await(2);
+        assertEquals(2, replayed.size());
+        assertTrue(replayed.stream().allMatch(event -> event.contains("event:counts")));
+        assertNotEquals(firstId, id(replayed.getFirst()));
+        assertTrue(restarted.await(1).getFirst().contains("event:reset"));
+        assertTrue(foreign.await(1).getFirst().contains("event:reset"));
+    }
+
+    private void awaitSubscribed() throws InterruptedException {
+        awaitSubscribed(1);
+    }
+
+    private void awaitSubscribed(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (hub.subscriberCount() != count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, hub.subscriberCount());
+    }
+
+    private static String id(String event) {
+        int start = event.indexOf("id:") + "id:".length();
+        return event.substring(start, event.indexOf('\n', start));
+    }
+
+    private static Task task(Long id, TaskStatus status, long revision) {
+        Task task = new Task(id, "test", "This is test", LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        task.setStatus(status);
+        task.touch(revision, LocalDateTime.now());
+        return task;
+    }
+
+    private static long revision(String event) {
+        int start = event.indexOf("\"revision\":") + "\"revision\":".length();
+        int end = start;
+        while (Character.isDigit(event.charAt(end))) {
+            end++;
+        }
+        return Long.parseLong(event.substring(start, end));
+    }
+
+    /**
+     * Keeps what would have been written to the client, one string per event.
+     */
+    static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        // Every send waits for it, like a send to a client that stopped reading.
+        private final CountDownLatch writable;
+        volatile boolean completed;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch writable) {
+            this.writable = writable;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                writable.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            events.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(Object::toString)
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        List<String> await(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            synchronized (events) {
+                return List.copyOf(events);
+            }
+        }
+
+        List<String> awaitEvent(String marker) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (System.nanoTime() < deadline) {
+                synchronized (events) {
+                    if (events.stream().anyMatch(event -> event.contains(marker))) {
+                        return List.copyOf(events);
+                    }
+                }
+                Thread.sleep(1);
+            }
+            throw new AssertionError("No " + marker + " event");
+        }
+    }
+}
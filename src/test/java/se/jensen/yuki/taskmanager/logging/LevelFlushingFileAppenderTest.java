@@ -0,0 +1,83 @@
+package se.jensen.yuki.taskmanager.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.rolling.TimeBasedRollingPolicy;
+import ch.qos.logback.core.util.FileSize;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LevelFlushingFileAppenderTest {
+    @TempDir
+    Path directory;
+
+    LoggerContext context;
+    LevelFlushingFileAppender appender;
+    Logger logger;
+    Path file;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        file = directory.resolve("application.log");
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%level %msg%n");
+        encoder.start();
+
+        appender = new LevelFlushingFileAppender();
+        appender.setContext(context);
+        appender.setFile(file.toString());
+        appender.setImmediateFlush(false);
+        appender.setBufferSize(new FileSize(64 * 1024));
+        appender.setEncoder(encoder);
+
+        TimeBasedRollingPolicy<ILoggingEvent> rollingPolicy = new TimeBasedRollingPolicy<>();
+        rollingPolicy.setContext(context);
+        rollingPolicy.setParent(appender);
+        rollingPolicy.setFileNamePattern(directory.resolve("application.%d{yyyy-MM-dd}.log").toString());
+        rollingPolicy.start();
+        appender.setRollingPolicy(rollingPolicy);
+        appender.start();
+
+        logger = context.getLogger("test");
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        logger.setLevel(Level.INFO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        appender.stop();
+        context.stop();
+    }
+
+    @Test
+    @DisplayName("Keep INFO events in the buffer and flush them with the next WARN")
+    void flushOnWarn() throws IOException {
+        // Act
+        logger.info("started");
+        String afterInfo = Files.readString(file);
+        logger.error("failed");
+        String afterError = Files.readString(file);
+
+        // Assert
+        assertEquals("", afterInfo);
+        assertEquals("INFO started\nERROR failed\n".replace("\n", System.lineSeparator()), afterError);
+    }
+}
@@ -0,0 +1,83 @@
+package se.jensen.yuki.taskmanager.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SamplingTurboFilterTest {
+    LoggerContext context;
+    AtomicLong nanoTime;
+    SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        // Pinned in the middle of a second, so the events of a test never straddle two seconds.
+        nanoTime = new AtomicLong(TimeUnit.SECONDS.toNanos(100) + TimeUnit.MILLISECONDS.toNanos(500));
+        filter = new SamplingTurboFilter(nanoTime::get);
+        filter.setContext(context);
+        filter.setLoggerName("org.hibernate.SQL_SLOW");
+        filter.setMaxPerSecond(2);
+        filter.start();
+    }
+
+    @Test
+    @DisplayName("Drop events over the limit for the sampled logger")
+    void dropEventsOverTheLimit() {
+        // Arrange
+        Logger logger = context.getLogger("org.hibernate.SQL_SLOW");
+
+        // Act
+        FilterReply first = filter.decide(null, logger, Level.INFO, "Slow query", null, null);
+        FilterReply second = filter.decide(null, logger, Level.INFO, "Slow query", null, null);
+        FilterReply third = filter.decide(null, logger, Level.INFO, "Slow query", null, null);
+
+        // Assert
+        assertEquals(FilterReply.NEUTRAL, first);
+        assertEquals(FilterReply.NEUTRAL, second);
+        assertEquals(FilterReply.DENY, third);
+        assertEquals(1, filter.getDropped());
+    }
+
+    @Test
+    @DisplayName("Let events through again in the next second")
+    void resetInTheNextSecond() {
+        // Arrange
+        Logger logger = context.getLogger("org.hibernate.SQL_SLOW");
+        for (int i = 0; i < 3; i++) {
+            filter.decide(null, logger, Level.INFO, "Slow query", null, null);
+        }
+
+        // Act
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        FilterReply next = filter.decide(null, logger, Level.INFO, "Slow query", null, null);
+
+        // Assert
+        assertEquals(FilterReply.NEUTRAL, next);
+        assertEquals(1, filter.getDropped());
+    }
+
+    @Test
+    @DisplayName("Leave other loggers and level checks alone")
+    void ignoreOtherLoggersAndLevelChecks() {
+        // Arrange
+        Logger other = context.getLogger("se.jensen.yuki");
+        Logger sampled = context.getLogger("org.hibernate.SQL_SLOW");
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.INFO, "Message", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, sampled, Level.INFO, null, null, null));
+        }
+        assertEquals(0, filter.getDropped());
+    }
+}
@@ -0,0 +1,88 @@
+package se.jensen.yuki.taskmanager.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import se.jensen.yuki.taskmanager.board.BoardReadModel;
+import se.jensen.yuki.taskmanager.dto.TaskView;
+import se.jensen.yuki.taskmanager.model.TaskField;
+import se.jensen.yuki.taskmanager.model.TaskSort;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import se.jensen.yuki.taskmanager.repository.TaskRepository;
+import se.jensen.yuki.taskmanager.search.InMemoryTaskSearchIndex;
+import se.jensen.yuki.taskmanager.service.TaskService;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class ResultSizeAspectTest {
+    @Mock
+    TaskRepository taskRepository;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    InMemoryTaskSearchIndex searchIndex;
+    @Mock
+    BoardReadModel boardReadModel;
+
+    SimpleMeterRegistry registry;
+    TaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new TaskService(taskRepository, eventPublisher, searchIndex,
+                boardReadModel));
+        factory.addAspect(new ResultSizeAspect(registry));
+        taskService = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Record the number of tasks found by status")
+    void recordFindByStatusResultSize() {
+        // Arrange
+        TaskView view = new TaskView(1L, "test", null, null, null, null, TaskStatus.NOT_STARTED, 1, 0L);
+        Mockito.when(boardReadModel.findByStatus(TaskStatus.NOT_STARTED)).thenReturn(Optional.empty());
+        Mockito.when(taskRepository.findViews(TaskStatus.NOT_STARTED, TaskSort.ID, null, Integer.MAX_VALUE,
+                TaskField.ALL)).thenReturn(List.of(view, view));
+
+        // Act
+        taskService.findViewsByStatus(TaskStatus.NOT_STARTED);
+
+        // Assert
+        DistributionSummary summary = registry.get(ResultSizeAspect.METRIC_NAME)
+                .tag("method", "findViewsByStatus")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2.0, summary.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Record empty keyword pages as zero results")
+    void recordEmptyKeywordPage() {
+        // Arrange
+        Mockito.when(taskRepository.findByKeyword("missing", 0, 10))
+                .thenReturn(List.of());
+
+        // Act
+        taskService.findByKeyword("missing", 0, 10);
+
+        // Assert
+        DistributionSummary summary = registry.get(ResultSizeAspect.METRIC_NAME)
+                .tag("method", "findByKeyword")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(0.0, summary.totalAmount());
+    }
+}
@@ -0,0 +1,177 @@
+package se.jensen.yuki.taskmanager.reminder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import se.jensen.yuki.taskmanager.event.DeadlineEvent;
+import se.jensen.yuki.taskmanager.event.TaskChangedEvent;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import se.jensen.yuki.taskmanager.repository.TaskRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineSchedulerTest {
+    static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    @Mock
+    TaskRepository taskRepository;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    MutableClock clock;
+    DeadlineScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        scheduler = new DeadlineScheduler(taskRepository, eventPublisher, transactionManager, true,
+                Duration.ofSeconds(1), Duration.ofHours(1), Duration.ofMinutes(30), clock);
+    }
+
+    @Test
+    @DisplayName("After a restart, publish the reminders that fell due while down and move the watermark on")
+    void catchUpAfterRestart() {
+        // Arrange
+        Task task = new Task(1L, "test", "This is test", NOW.minusDays(1), NOW.minusDays(1), NOW.plusMinutes(15));
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        when(taskRepository.findReminderWatermark()).thenReturn(NOW);
+        when(taskRepository.findDeadlines(any(), any(), any(), anyLong(), anyInt())).thenReturn(List.of(task));
+        clock.set(NOW.plusMinutes(30));
+
+        // Act
+        scheduler.start();
+        scheduler.tick();
+        clock.set(NOW.plusMinutes(30).plusSeconds(10));
+        scheduler.tick();
+
+        // Assert
+        verify(taskRepository).findDeadlines(NOW, NOW.plusMinutes(90), NOW.plusMinutes(120), 0, 1000);
+        verify(eventPublisher).publishEvent(new DeadlineEvent(DeadlineEvent.Kind.OVERDUE, 1L, NOW.plusMinutes(15)));
+        verify(eventPublisher, never()).publishEvent(
+                new DeadlineEvent(DeadlineEvent.Kind.DUE_SOON, 1L, NOW.plusMinutes(15)));
+        verify(taskRepository).saveReminderWatermark(NOW.plusMinutes(30).plusSeconds(10));
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    @Test
+    @DisplayName("Publish start, due soon and overdue reminders each at its time")
+    void publishInOrder() {
+        // Arrange
+        Task task = new Task(1L, "test", "This is test", NOW, NOW.plusMinutes(5), NOW.plusMinutes(45));
+        when(taskRepository.findDeadlines(any(), any(), any(), anyLong(), anyInt())).thenReturn(List.of(task));
+        scheduler.start();
+        scheduler.tick();
+
+        // Act
+        clock.set(NOW.plusMinutes(10));
+        scheduler.tick();
+        int afterStart = scheduler.pendingCount();
+        clock.set(NOW.plusMinutes(20));
+        scheduler.tick();
+        int afterDueSoon = scheduler.pendingCount();
+        clock.set(NOW.plusMinutes(50));
+        scheduler.tick();
+
+        // Assert
+        assertEquals(2, afterStart);
+        assertEquals(1, afterDueSoon);
+        verify(eventPublisher).publishEvent(new DeadlineEvent(DeadlineEvent.Kind.START, 1L, NOW.plusMinutes(5)));
+        verify(eventPublisher).publishEvent(new DeadlineEvent(DeadlineEvent.Kind.DUE_SOON, 1L, NOW.plusMinutes(45)));
+        verify(eventPublisher).publishEvent(new DeadlineEvent(DeadlineEvent.Kind.OVERDUE, 1L, NOW.plusMinutes(45)));
+    }
+
+    @Test
+    @DisplayName("Cancel the reminders of a task that is marked done")
+    void cancelWhenDone() {
+        // Arrange
+        Task task = new Task(1L, "test", "This is test", NOW, NOW.plusMinutes(5), NOW.plusMinutes(45));
+        when(taskRepository.findDeadlines(any(), any(), any(), anyLong(), anyInt())).thenReturn(List.of(task));
+        scheduler.start();
+        scheduler.tick();
+        int before = scheduler.pendingCount();
+
+        // Act
+        task.setStatus(TaskStatus.DONE);
+        scheduler.onTaskChanged(TaskChangedEvent.statusChanged(task, TaskStatus.NOT_STARTED));
+        clock.set(NOW.plusHours(1));
+        scheduler.tick();
+
+        // Assert
+        assertEquals(3, before);
+        assertEquals(0, scheduler.pendingCount());
+        verify(eventPublisher, never()).publishEvent(any(DeadlineEvent.class));
+    }
+
+    @Test
+    @DisplayName("Move the reminders of a task whose end date changes")
+    void rescheduleOnUpdate() {
+        // Arrange
+        Task task = new Task(1L, "test", "This is test", NOW, NOW.minusMinutes(5), NOW.plusMinutes(20));
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        when(taskRepository.findDeadlines(any(), any(), any(), anyLong(), anyInt())).thenReturn(List.of(task));
+        scheduler.start();
+        scheduler.tick();
+
+        // Act
+        Task moved = new Task(1L, "test", "This is test", NOW, NOW.minusMinutes(5), NOW.plusMinutes(50));
+        moved.setStatus(TaskStatus.IN_PROGRESS);
+        scheduler.onTaskChanged(TaskChangedEvent.updated(moved, TaskStatus.IN_PROGRESS));
+        clock.set(NOW.plusMinutes(30));
+        scheduler.tick();
+
+        // Assert
+        verify(eventPublisher, never()).publishEvent(
+                new DeadlineEvent(DeadlineEvent.Kind.OVERDUE, 1L, NOW.plusMinutes(20)));
+        verify(eventPublisher).publishEvent(new DeadlineEvent(DeadlineEvent.Kind.DUE_SOON, 1L, NOW.plusMinutes(50)));
+        assertEquals(1, scheduler.pendingCount());
+    }
+
+    static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(LocalDateTime time) {
+            set(time);
+        }
+
+        void set(LocalDateTime time) {
+            instant = time.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package se.jensen.yuki.taskmanager.reminder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    @Test
+    @DisplayName("Expire timers when the wheel reaches their tick, not before")
+    void expireAtDeadline() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 0);
+        wheel.schedule("b", 5_000);
+        wheel.schedule("a", 2_500);
+        List<String> expired = new ArrayList<>();
+
+        // Act
+        wheel.advance(1_999, expired::add);
+        List<String> early = List.copyOf(expired);
+        wheel.advance(2_000, expired::add);
+        wheel.advance(10_000, expired::add);
+
+        // Assert
+        assertEquals(List.of(), early);
+        assertEquals(List.of("a", "b"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("Move far timers down the levels and expire them on time")
+    void cascadeFarTimers() {
+        // Arrange
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        long[] deadlines = {63, 64, 65, 4_095, 4_096, 262_143, 262_144, 1L << 40};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+        List<Long> expired = new ArrayList<>();
+
+        // Act
+        for (long deadline : deadlines) {
+            wheel.advance(deadline - 1, expired::add);
+            assertFalse(expired.contains(deadline), "expired before " + deadline);
+            wheel.advance(deadline, expired::add);
+            assertTrue(expired.contains(deadline), "not expired at " + deadline);
+        }
+
+        // Assert
+        assertEquals(deadlines.length, expired.size());
+    }
+
+    @Test
+    @DisplayName("Never expire a cancelled timer")
+    void cancel() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 100_000);
+        wheel.schedule("kept", 100_000);
+        List<String> expired = new ArrayList<>();
+
+        // Act
+        boolean first = cancelled.cancel();
+        boolean second = cancelled.cancel();
+        wheel.advance(200_000, expired::add);
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertFalse(cancelled.isPending());
+        assertEquals(List.of("kept"), expired);
+    }
+
+    @Test
+    @DisplayName("Expire a deadline that has already passed at the next tick")
+    void expirePastDeadline() {
+        // Arrange
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 60_000);
+        wheel.schedule("late", 1_000);
+        List<String> expired = new ArrayList<>();
+
+        // Act
+        wheel.advance(60_999, expired::add);
+        wheel.advance(61_000, expired::add);
+
+        // Assert
+        assertEquals(List.of("late"), expired);
+    }
+
+    @Test
+    @DisplayName("Expire every timer exactly once and on time, whatever the deadlines and steps")
+    void matchBruteForce() {
+        // Arrange
+        Random random = new Random(42);
+        TimingWheel<long[]> wheel = new TimingWheel<>(1, 0);
+        List<TimingWheel.Timeout<long[]>> timeouts = new ArrayList<>();
+        long now = 0;
+
+        for (int step = 0; step < 2_000; step++) {
+            for (int i = random.nextInt(20); i > 0; i--) {
+                long deadline = now + (long) (random.nextDouble() * Math.pow(64, random.nextInt(5)));
+                timeouts.add(wheel.schedule(new long[]{deadline, 0}, deadline));
+            }
+            if (random.nextInt(3) == 0) {
+                timeouts.get(random.nextInt(timeouts.size())).cancel();
+            }
+            long target = now + 1 + random.nextInt(random.nextInt(10) == 0 ? 100_000 : 100);
+
+            // Act
+            wheel.advance(target, timer -> {
+                assertTrue(timer[0] <= target, "expired early");
+                assertEquals(0, timer[1], "expired twice");
+                timer[1] = 1;
+            });
+            now = target;
+
+            // Assert
+            for (TimingWheel.Timeout<long[]> timeout : timeouts) {
+                assertFalse(timeout.isPending() && timeout.payload()[0] <= now, "not expired on time");
+            }
+        }
+        assertEquals(timeouts.stream().filter(TimingWheel.Timeout::isPending).count(), wheel.size());
+    }
+}
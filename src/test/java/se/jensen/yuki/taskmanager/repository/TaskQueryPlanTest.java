@@ -0,0 +1,147 @@
+package se.jensen.yuki.taskmanager.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks with EXPLAIN that the status, date and change feed queries are answered by the indexes from
+ * db/migration/common.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class TaskQueryPlanTest {
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("my_database")
+            .withUsername("taskmanager")
+            .withPassword("pass");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO task (id, version, revision, title, status, priority, created_datetime, end_datetime)
+                SELECT nextval('task_seq'), 0, g, 'task ' || g,
+                       (ARRAY['NOT_STARTED', 'IN_PROGRESS', 'DONE'])[1 + g % 3],
+                       1 + g % 5,
+                       now() - g * interval '1 minute',
+                       now() + (g % 60 - 30) * interval '1 day'
+                FROM generate_series(1, 1000) g
+                """);
+        jdbcTemplate.execute("ANALYZE task");
+        // A table this small is always cheapest to scan, so only allow a sequential scan if no index fits.
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    @DisplayName("Overdue tasks are found through the status and end date index")
+    void overdueUsesStatusEndDatetimeIndex() {
+        // Act
+        String plan = explain(TaskRepositoryImpl.OVERDUE_SQL, Map.of(
+                "statuses", TaskRepositoryImpl.openStatuses(),
+                "now", LocalDateTime.now(),
+                "limit", 100));
+
+        // Assert
+        assertTrue(plan.contains("idx_task_status_end_datetime"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    @DisplayName("Tasks due within a window are found through the status and end date index")
+    void dueWithinUsesStatusEndDatetimeIndex() {
+        // Act
+        String plan = explain(TaskRepositoryImpl.DUE_WITHIN_SQL, Map.of(
+                "statuses", TaskRepositoryImpl.openStatuses(),
+                "now", LocalDateTime.now(),
+                "until", LocalDateTime.now().plusDays(7),
+                "limit", 100));
+
+        // Assert
+        assertTrue(plan.contains("idx_task_status_end_datetime"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    @DisplayName("Tasks by status in id order are read from the status index")
+    void statusPageUsesStatusIdIndex() {
+        // Act
+        String plan = explain("SELECT t.* FROM task t WHERE t.status = :status ORDER BY t.id LIMIT 100",
+                Map.of("status", "IN_PROGRESS"));
+
+        // Assert
+        assertTrue(plan.contains("idx_task_status_id"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    @DisplayName("Pages sorted by creation time are read from the created date index")
+    void createdSortUsesCreatedDatetimeIndex() {
+        // Act
+        String plan = explain("SELECT t.* FROM task t ORDER BY t.created_datetime ASC NULLS LAST, t.id ASC LIMIT 100",
+                Map.of());
+
+        // Assert
+        assertTrue(plan.contains("idx_task_created_datetime"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    @DisplayName("Changes after a revision are read in order from the revision index")
+    void changesUseRevisionIndex() {
+        // Act
+        String plan = explain(TaskRepositoryImpl.CHANGES_SQL, Map.of("since", 900, "limit", 100));
+
+        // Assert
+        assertTrue(plan.contains("idx_task_revision"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    @DisplayName("The next open tasks are read in order from the partial priority index")
+    void nextUsesPartialPriorityIndex() {
+        // Act
+        String plan = explain("""
+                SELECT t.* FROM task t
+                WHERE t.status <> 'DONE' AND t.deleted = false
+                ORDER BY t.priority ASC, t.end_datetime ASC NULLS LAST, t.id ASC
+                LIMIT 10
+                """, Map.of());
+
+        // Assert
+        assertTrue(plan.contains("idx_task_next"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    private String explain(String sql, Map<String, ?> parameters) {
+        return String.join("\n", new NamedParameterJdbcTemplate(jdbcTemplate)
+                .queryForList("EXPLAIN " + sql, parameters, String.class));
+    }
+}
@@ -11,13 +11,22 @@ import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import se.jensen.yuki.taskmanager.dto.BoardSummary;
+import se.jensen.yuki.taskmanager.dto.TaskCursor;
+import se.jensen.yuki.taskmanager.dto.TaskListVersion;
+import se.jensen.yuki.taskmanager.dto.TaskView;
 import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskField;
+import se.jensen.yuki.taskmanager.model.TaskSort;
 import se.jensen.yuki.taskmanager.model.TaskStatus;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -92,4 +101,210 @@ class TaskRepositoryImplTest {
         // Assert
         assertEquals(0, tasks.size());
     }
+
+    @Test
+    @DisplayName("Page through tasks by id without gaps or overlaps")
+    void findPageBounds() {
+        // Arrange
+        for (int i = 3; i <= 5; i++) {
+            taskRepository.save(new Task("test" + i, "This is a test task",
+                    LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now()));
+        }
+
+        // Act
+        List<Task> first = taskRepository.findPage(null, TaskSort.ID, null, 2);
+        List<Task> second = taskRepository.findPage(null, TaskSort.ID, TaskCursor.of(first.get(1).getId()), 2);
+        List<Task> last = taskRepository.findPage(null, TaskSort.ID, TaskCursor.of(second.get(1).getId()), 2);
+        List<Task> beyond = taskRepository.findPage(null, TaskSort.ID, TaskCursor.of(last.get(0).getId()), 2);
+
+        // Assert
+        assertEquals(List.of("test1", "test2"), first.stream().map(Task::getTitle).toList());
+        assertEquals(List.of("test3", "test4"), second.stream().map(Task::getTitle).toList());
+        assertEquals(List.of("test5"), last.stream().map(Task::getTitle).toList());
+        assertTrue(beyond.isEmpty());
+        assertTrue(taskRepository.findPage(TaskStatus.DONE, TaskSort.ID, null, 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Continue a sorted page after the task of the cursor has been deleted")
+    void findPageAfterDeletedCursorTask() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        taskRepository.deleteAll();
+        for (int i = 1; i <= 3; i++) {
+            taskRepository.save(new Task("test" + i, "This is a test task",
+                    now, now, now.plusDays(i)));
+        }
+        List<TaskView> first = taskRepository.findViews(null, TaskSort.END_DATETIME, null, 2, TaskField.parse("title"));
+        TaskCursor cursor = TaskCursor.after(first.getLast(), TaskSort.END_DATETIME);
+
+        // Act
+        taskRepository.deleteById(first.getLast().id());
+        List<TaskView> next = taskRepository.findViews(null, TaskSort.END_DATETIME,
+                TaskCursor.parse(cursor.format(TaskSort.END_DATETIME), TaskSort.END_DATETIME), 2,
+                TaskField.parse("title"));
+
+        // Assert
+        assertEquals(List.of("test1", "test2"), first.stream().map(TaskView::title).toList());
+        assertEquals(List.of("test3"), next.stream().map(TaskView::title).toList());
+    }
+
+    @Test
+    @DisplayName("Stream every task in id order, optionally of one status")
+    void streamAllRows() {
+        // Arrange
+        for (int i = 3; i <= 5; i++) {
+            Task task = new Task("test" + i, "This is a test task",
+                    LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+            task.setStatus(i == 5 ? TaskStatus.DONE : TaskStatus.NOT_STARTED);
+            taskRepository.save(task);
+        }
+        taskRepository.flush();
+
+        // Act
+        List<String> all;
+        try (Stream<Task> tasks = taskRepository.streamAll(null)) {
+            all = tasks.map(Task::getTitle).toList();
+        }
+        List<String> done;
+        try (Stream<Task> tasks = taskRepository.streamAll(TaskStatus.DONE)) {
+            done = tasks.map(Task::getTitle).toList();
+        }
+
+        // Assert
+        assertEquals(List.of("test1", "test2", "test3", "test4", "test5"), all);
+        assertEquals(List.of("test5"), done);
+    }
+
+    @Test
+    @DisplayName("Get board counts and the first cards of each column")
+    void findBoardSuccess() {
+        // Act
+        BoardSummary board = taskRepository.findBoard(1);
+
+        // Assert
+        assertEquals(2L, board.counts().get(TaskStatus.NOT_STARTED));
+        assertEquals(0L, board.counts().get(TaskStatus.DONE));
+        assertEquals(1, board.columns().get(TaskStatus.NOT_STARTED).size());
+        assertEquals("test1", board.columns().get(TaskStatus.NOT_STARTED).get(0).title());
+        assertTrue(board.columns().get(TaskStatus.DONE).isEmpty());
+    }
+
+    @Test
+    @DisplayName("List version changes when a task is updated")
+    void findListVersionChangesOnUpdate() {
+        // Arrange
+        TaskListVersion before = taskRepository.findListVersion(null);
+        Task task = taskRepository.findAll().get(0);
+        task.setTitle("updated");
+        taskRepository.saveAndFlush(task);
+
+        // Act
+        TaskListVersion after = taskRepository.findListVersion(null);
+
+        // Assert
+        assertEquals(2L, before.count());
+        assertEquals(before.count(), after.count());
+        assertNotEquals(before, after);
+        assertEquals(0L, taskRepository.findListVersion(TaskStatus.DONE).count());
+    }
+
+    @Test
+    @DisplayName("Load only the selected fields into task views")
+    void findViewsWithSelectedFields() {
+        // Act
+        List<TaskView> views = taskRepository.findViews(TaskStatus.NOT_STARTED, TaskSort.ID, null, 10,
+                TaskField.parse("title,status"));
+
+        // Assert
+        assertEquals(2, views.size());
+        assertEquals("test1", views.get(0).title());
+        assertEquals(TaskStatus.NOT_STARTED, views.get(0).status());
+        assertNull(views.get(0).description());
+        assertTrue(views.get(0).id() < views.get(1).id());
+    }
+
+    @Test
+    @DisplayName("Find task views by keyword with the native search")
+    void findViewsByKeywordSuccess() {
+        // Act
+        List<TaskView> views = taskRepository.findViewsByKeyword("test2", 0, 10, TaskField.parse("title"));
+
+        // Assert
+        assertEquals(1, views.size());
+        assertEquals("test2", views.get(0).title());
+        assertNull(views.get(0).status());
+    }
+
+    @Test
+    @DisplayName("Find overdue tasks that are not done")
+    void findOverdueSuccess() {
+        // Arrange
+        Task done = new Task("test3", "This is a done task",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now().minusDays(2));
+        done.setStatus(TaskStatus.DONE);
+        taskRepository.save(done);
+
+        // Act
+        List<Task> tasks = taskRepository.findOverdue(LocalDateTime.now().plusDays(1), 10);
+
+        // Assert
+        assertEquals(List.of("test1", "test2"), tasks.stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    @DisplayName("Find tasks due within a time window")
+    void findDueWithinSuccess() {
+        // Act
+        List<Task> dueSoon = taskRepository.findDueWithin(LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1), 10);
+        List<Task> dueLater = taskRepository.findDueWithin(LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(7), 10);
+
+        // Assert
+        assertEquals(2, dueSoon.size());
+        assertTrue(dueLater.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Find changes after a revision including deleted tasks")
+    void findChangesSinceSuccess() {
+        // Arrange
+        long first = taskRepository.reserveRevisions(2);
+        List<Task> tasks = taskRepository.findAll();
+        tasks.get(0).touch(first, LocalDateTime.now());
+        tasks.get(1).markDeleted(first + 1, LocalDateTime.now());
+        taskRepository.flushAndClear();
+
+        // Act
+        List<Task> changes = taskRepository.findChangesSince(first - 1, 10);
+
+        // Assert
+        assertEquals(List.of(first, first + 1), changes.stream().map(Task::getRevision).toList());
+        assertTrue(changes.get(1).isDeleted());
+        assertEquals(1, taskRepository.findAll().size());
+        assertEquals(List.of(first + 1), taskRepository.findChangesSince(first, 10).stream()
+                .map(Task::getRevision).toList());
+    }
+
+    @Test
+    @DisplayName("Latest revision is the last one reserved")
+    void findLatestRevisionSuccess() {
+        // Act
+        long first = taskRepository.reserveRevisions(2);
+
+        // Assert
+        assertEquals(first + 1, taskRepository.findLatestRevision());
+    }
+
+    @Test
+    @DisplayName("Reserve consecutive revisions")
+    void reserveRevisionsSuccess() {
+        // Act
+        long first = taskRepository.reserveRevisions(3);
+        long next = taskRepository.reserveRevisions(1);
+
+        // Assert
+        assertEquals(first + 3, next);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package se.jensen.yuki.taskmanager.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+    InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.put(1L, "Write report", "Quarterly numbers for the test team");
+        index.put(2L, "Test release", "Run the regression tests");
+        index.put(3L, "Buy milk", null);
+    }
+
+    @Test
+    @DisplayName("Find documents by substring, title matches first")
+    void searchRanksTitleMatchesFirst() {
+        // Act
+        List<Long> ids = index.search("test", 0, 10);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), ids);
+    }
+
+    @Test
+    @DisplayName("Search is case insensitive and matches inside words")
+    void searchMatchesSubstring() {
+        // Act
+        List<Long> ids = index.search("GRESS", 0, 10);
+
+        // Assert
+        assertEquals(List.of(2L), ids);
+    }
+
+    @Test
+    @DisplayName("Short keywords are resolved through the token vocabulary")
+    void searchShortKeyword() {
+        // Act
+        List<Long> ids = index.search("mi", 0, 10);
+
+        // Assert
+        assertEquals(List.of(3L), ids);
+    }
+
+    @Test
+    @DisplayName("Paginate ranked results")
+    void searchPaginates() {
+        // Act
+        List<Long> firstPage = index.search("test", 0, 1);
+        List<Long> secondPage = index.search("test", 1, 1);
+        List<Long> emptyPage = index.search("test", 2, 1);
+
+        // Assert
+        assertEquals(List.of(2L), firstPage);
+        assertEquals(List.of(1L), secondPage);
+        assertTrue(emptyPage.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Updated and removed documents are no longer found by old text")
+    void putAndRemoveKeepPostingsInSync() {
+        // Act
+        index.put(3L, "Buy bread", null);
+        index.remove(2L);
+
+        // Assert
+        assertTrue(index.search("milk", 0, 10).isEmpty());
+        assertEquals(List.of(3L), index.search("bread", 0, 10));
+        assertEquals(List.of(1L), index.search("test", 0, 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("No documents found by unknown keyword")
+    void searchNotFound() {
+        // Act & Assert
+        assertTrue(index.search("java", 0, 10).isEmpty());
+    }
+}
@@ -0,0 +1,80 @@
+package se.jensen.yuki.taskmanager.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class StatusWriteBufferTest {
+    @Mock
+    TaskService taskService;
+
+    StatusWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        // Disabled so no scheduled flush runs; the tests flush by hand.
+        buffer = new StatusWriteBuffer(taskService, false, Duration.ofMinutes(1), 1000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        buffer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Write only the last status of a task that changed several times")
+    void flushCoalescesChanges() {
+        // Arrange
+        buffer.submit(1L, TaskStatus.IN_PROGRESS);
+        buffer.submit(1L, TaskStatus.DONE);
+        buffer.submit(2L, TaskStatus.IN_PROGRESS);
+
+        // Act
+        boolean flushed = buffer.flush();
+
+        // Assert
+        assertTrue(flushed);
+        verify(taskService).applyStatuses(Map.of(1L, TaskStatus.DONE, 2L, TaskStatus.IN_PROGRESS));
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    @DisplayName("Keep the changes when the flush fails, unless a newer change came in")
+    void flushFailureKeepsChanges() {
+        // Arrange
+        buffer.submit(1L, TaskStatus.IN_PROGRESS);
+        Mockito.when(taskService.applyStatuses(Map.of(1L, TaskStatus.IN_PROGRESS)))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+
+        // Act
+        boolean flushed = buffer.flush();
+
+        // Assert
+        assertFalse(flushed);
+        assertEquals(1, buffer.pendingCount());
+    }
+
+    @Test
+    @DisplayName("Fail queuing a status change for a wrong ID")
+    void submitFailWithWrongId() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> buffer.submit(0L, TaskStatus.DONE));
+    }
+}
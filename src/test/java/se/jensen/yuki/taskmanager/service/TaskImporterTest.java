@@ -0,0 +1,100 @@
+package se.jensen.yuki.taskmanager.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.jensen.yuki.taskmanager.dto.BatchResult;
+import se.jensen.yuki.taskmanager.dto.ImportProgress;
+import se.jensen.yuki.taskmanager.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TaskImporterTest {
+    @Mock
+    TaskService taskService;
+    @InjectMocks
+    TaskImporter taskImporter;
+
+    @Test
+    @DisplayName("Import rows in chunks and report progress after every chunk")
+    void importTasksInChunks() {
+        // Arrange
+        int rows = TaskImporter.CHUNK_SIZE + 5;
+        Mockito.when(taskService.addAll(anyList())).thenAnswer(invocation -> {
+            List<Task> chunk = invocation.getArgument(0);
+            return IntStream.range(0, chunk.size())
+                    .mapToObj(i -> new BatchResult(i, (long) i + 1, BatchResult.Outcome.CREATED))
+                    .toList();
+        });
+        List<ImportProgress> reports = new ArrayList<>();
+
+        // Act
+        ImportProgress result = taskImporter.importTasks(tasks(rows, -1), reports::add);
+
+        // Assert
+        assertEquals(new ImportProgress(rows, rows, 0, null, true), result);
+        assertEquals(2, reports.size());
+        assertEquals(TaskImporter.CHUNK_SIZE, reports.get(0).imported());
+        verify(taskService, times(2)).addAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Count invalid rows and go on with the next one")
+    void importTasksSkipsInvalidRows() {
+        // Arrange
+        Mockito.when(taskService.addAll(anyList())).thenAnswer(invocation -> {
+            List<Task> chunk = invocation.getArgument(0);
+            return chunk.stream()
+                    .map(task -> new BatchResult(0, 1L, BatchResult.Outcome.CREATED))
+                    .toList();
+        });
+
+        // Act
+        ImportProgress result = taskImporter.importTasks(tasks(3, 1), progress -> {
+        });
+
+        // Assert
+        assertEquals(3, result.read());
+        assertEquals(2, result.imported());
+        assertEquals(1, result.invalid());
+        assertEquals("Row 2: broken", result.error());
+    }
+
+    /**
+     * {@code count} rows where the one at {@code invalidIndex} fails to parse.
+     */
+    private static Iterator<Task> tasks(int count, int invalidIndex) {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public Task next() {
+                int index = next++;
+                if (index == invalidIndex) {
+                    throw new IllegalArgumentException("Row " + (index + 1) + ": broken");
+                }
+                LocalDateTime now = LocalDateTime.now();
+                return new Task("task " + index, "Imported task", now, now, now);
+            }
+        };
+    }
+}
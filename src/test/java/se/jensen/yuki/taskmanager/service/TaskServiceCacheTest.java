@@ -0,0 +1,104 @@
+package se.jensen.yuki.taskmanager.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import se.jensen.yuki.taskmanager.board.BoardReadModel;
+import se.jensen.yuki.taskmanager.config.CacheConfig;
+import se.jensen.yuki.taskmanager.dto.TaskView;
+import se.jensen.yuki.taskmanager.model.TaskField;
+import se.jensen.yuki.taskmanager.model.TaskSort;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import se.jensen.yuki.taskmanager.repository.TaskRepository;
+import se.jensen.yuki.taskmanager.search.InMemoryTaskSearchIndex;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs {@link TaskService} behind Spring's caching proxy, so the cache conditions are evaluated as in
+ * the application.
+ */
+class TaskServiceCacheTest {
+    AnnotationConfigApplicationContext context;
+    TaskService taskService;
+    TaskRepository taskRepository;
+    BoardReadModel boardReadModel;
+    CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(Config.class);
+        taskService = context.getBean(TaskService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        boardReadModel = context.getBean(BoardReadModel.class);
+        cacheManager = context.getBean(CacheManager.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Cache the tasks by status only while they are read from the database")
+    void cacheStatusListsOnlyFromDatabase() {
+        // Arrange
+        TaskView view = new TaskView(1L, "test", null, null, null, null, TaskStatus.DONE, 1, 0L);
+        Mockito.when(boardReadModel.isServing()).thenReturn(true);
+        Mockito.when(boardReadModel.findByStatus(TaskStatus.DONE)).thenReturn(Optional.of(List.of(view)));
+        Mockito.when(taskRepository.findViews(TaskStatus.DONE, TaskSort.ID, null, Integer.MAX_VALUE, TaskField.ALL))
+                .thenReturn(List.of(view));
+
+        // Act
+        taskService.findViewsByStatus(TaskStatus.DONE);
+        Object cachedFromModel = cacheManager.getCache(CacheConfig.TASKS_BY_STATUS_CACHE).get(TaskStatus.DONE);
+        Mockito.when(boardReadModel.isServing()).thenReturn(false);
+        Mockito.when(boardReadModel.findByStatus(TaskStatus.DONE)).thenReturn(Optional.empty());
+        taskService.findViewsByStatus(TaskStatus.DONE);
+        taskService.findViewsByStatus(TaskStatus.DONE);
+
+        // Assert
+        assertNull(cachedFromModel);
+        assertNotNull(cacheManager.getCache(CacheConfig.TASKS_BY_STATUS_CACHE).get(TaskStatus.DONE));
+        Mockito.verify(taskRepository, Mockito.times(1))
+                .findViews(TaskStatus.DONE, TaskSort.ID, null, Integer.MAX_VALUE, TaskField.ALL);
+    }
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.TASKS_CACHE, CacheConfig.TASKS_BY_STATUS_CACHE);
+        }
+
+        @Bean
+        TaskRepository taskRepository() {
+            return Mockito.mock(TaskRepository.class);
+        }
+
+        @Bean
+        BoardReadModel boardReadModel() {
+            return Mockito.mock(BoardReadModel.class);
+        }
+
+        @Bean
+        TaskService taskService(TaskRepository taskRepository, BoardReadModel boardReadModel) {
+            return new TaskService(taskRepository, Mockito.mock(ApplicationEventPublisher.class),
+                    Mockito.mock(InMemoryTaskSearchIndex.class), boardReadModel);
+        }
+    }
+}
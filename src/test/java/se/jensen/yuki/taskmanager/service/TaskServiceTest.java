@@ -9,15 +9,27 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import se.jensen.yuki.taskmanager.board.BoardReadModel;
+import se.jensen.yuki.taskmanager.dto.BatchResult;
+import se.jensen.yuki.taskmanager.dto.TaskChanges;
+import se.jensen.yuki.taskmanager.dto.TaskView;
+import se.jensen.yuki.taskmanager.event.TaskChangedEvent;
 import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskField;
+import se.jensen.yuki.taskmanager.model.TaskSort;
 import se.jensen.yuki.taskmanager.model.TaskStatus;
 import se.jensen.yuki.taskmanager.repository.TaskRepository;
+import se.jensen.yuki.taskmanager.search.InMemoryTaskSearchIndex;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.verify;
@@ -26,6 +38,12 @@ import static org.mockito.Mockito.verify;
 class TaskServiceTest {
     @Mock
     TaskRepository taskRepository;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    InMemoryTaskSearchIndex searchIndex;
+    @Mock
+    BoardReadModel boardReadModel;
     @InjectMocks
     TaskService taskService;
 
@@ -40,13 +58,15 @@ class TaskServiceTest {
 
     @Test
     @DisplayName("Get all tasks")
-    void getAllTasks() {
+    void getAllTaskViews() {
         // Arrange
-        Mockito.when(taskRepository.findAll()).thenReturn(List.of(
-                new Task(1L, "test", "This is test", LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now())));
+        TaskView view = new TaskView(1L, "test", null, null, null, null, TaskStatus.NOT_STARTED, 1, 0L);
+        Mockito.when(boardReadModel.findAll()).thenReturn(Optional.empty());
+        Mockito.when(taskRepository.findViews(null, TaskSort.ID, null, Integer.MAX_VALUE, TaskField.ALL))
+                .thenReturn(List.of(view));
 
         // Act
-        List<Task> tasks = taskService.getAllTasks();
+        List<TaskView> tasks = taskService.getAllTaskViews(TaskField.ALL);
 
         // Assert
         assertEquals(1, tasks.size());
@@ -63,7 +83,7 @@ class TaskServiceTest {
                 .thenReturn(optionalTask);
 
         // Act
-        Optional<Task> returnOpt = taskService.getById(1L);
+        Optional<TaskView> returnOpt = taskService.getById(1L);
 
         // Act
         assertTrue(returnOpt.isPresent());
@@ -77,7 +97,7 @@ class TaskServiceTest {
                 .thenReturn(Optional.empty());
 
         // Act
-        Optional<Task> returnOpt = taskService.getById(99L);
+        Optional<TaskView> returnOpt = taskService.getById(99L);
 
         // Act
         assertFalse(returnOpt.isPresent());
@@ -124,6 +144,89 @@ class TaskServiceTest {
         assertThrows(IllegalArgumentException.class, () -> taskService.add(emptyTask));
     }
 
+    @Test
+    @DisplayName("Fail adding a task with a priority out of range")
+    void addTaskFailWithInvalidPriority() {
+        // Arrange
+        Task task = new Task(null, "test", "This is test",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        task.setPriority(0);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> taskService.add(task));
+    }
+
+    @Test
+    @DisplayName("Add tasks in a batch and report invalid items")
+    void addAllSuccess() {
+        // Arrange
+        Task task = new Task(null, "test", "This is test",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        Task savedTask = new Task(1L, "test", "This is test",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(null);
+        tasks.add(task);
+        Mockito.when(taskRepository.saveAll(List.of(task))).thenReturn(List.of(savedTask));
+
+        // Act
+        List<BatchResult> results = taskService.addAll(tasks);
+
+        // Assert
+        assertEquals(List.of(
+                new BatchResult(0, null, BatchResult.Outcome.INVALID),
+                new BatchResult(1, 1L, BatchResult.Outcome.CREATED)), results);
+        verify(taskRepository).flushAndClear();
+    }
+
+    @Test
+    @DisplayName("Fail adding an empty batch")
+    void addAllFailWithEmptyBatch() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> taskService.addAll(List.of()));
+    }
+
+    @Test
+    @DisplayName("Update tasks in a batch and report missing ones")
+    void updateAllSuccess() {
+        // Arrange
+        Task oldTask = new Task(1L, "test", "This is an old task",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        Task newTask = new Task(1L, "test", "This is a updated task",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        Task missingTask = new Task(2L, "test", "This task doesn't exist",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        Mockito.when(taskRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(oldTask));
+
+        // Act
+        List<BatchResult> results = taskService.updateAll(List.of(newTask, missingTask));
+
+        // Assert
+        assertEquals(List.of(
+                new BatchResult(0, 1L, BatchResult.Outcome.UPDATED),
+                new BatchResult(1, 2L, BatchResult.Outcome.NOT_FOUND)), results);
+        assertEquals("This is a updated task", oldTask.getDescription());
+    }
+
+    @Test
+    @DisplayName("Delete tasks in a batch")
+    void deleteAllSuccess() {
+        // Arrange
+        Task task = new Task(1L, "test", "This is test",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        Mockito.when(taskRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(task));
+
+        // Act
+        List<BatchResult> results = taskService.deleteAll(List.of(1L, 2L));
+
+        // Assert
+        assertEquals(List.of(
+                new BatchResult(0, 1L, BatchResult.Outcome.DELETED),
+                new BatchResult(1, 2L, BatchResult.Outcome.NOT_FOUND)), results);
+        assertTrue(task.isDeleted());
+        verify(taskRepository).flushAndClear();
+    }
+
     @Test
     @DisplayName("Update successfully")
     void updateSuccess() {
@@ -146,6 +249,24 @@ class TaskServiceTest {
         assertEquals(newTask.getDescription(), result.getDescription());
     }
 
+    @Test
+    @DisplayName("Fail updating a task that has a newer version")
+    void updateFailWithStaleVersion() {
+        // Arrange
+        Task oldTask = new Task(1L, "test", "This is an old task",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        oldTask.setVersion(3L);
+        Task newTask = new Task(1L, "test", "This is a updated task",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        Mockito.when(taskRepository.findById(1L))
+                .thenReturn(Optional.of(oldTask));
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> taskService.update(1L, newTask, 2L));
+        assertEquals("This is an old task", oldTask.getDescription());
+        Mockito.verify(taskRepository, Mockito.never()).save(oldTask);
+    }
+
     @Test
     @DisplayName("Fail updating with a wrong ID")
     void updateFailWithWrongId() {
@@ -231,16 +352,149 @@ class TaskServiceTest {
     }
 
     @Test
-    @DisplayName("Get tasks by status")
-    void findByStatusSuccess() {
+    @DisplayName("Get a page of tasks by keyword from the search index")
+    void findByKeywordPageFromSearchIndex() {
         // Arrange
-        Task task = new Task(1L, "test1", "This is a test task",
+        Task task1 = new Task(1L, "test1", "This is a test task",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        Task task2 = new Task(2L, "test2", "This is a test task",
                 LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
-        Mockito.when(taskRepository.findByStatus(TaskStatus.NOT_STARTED))
+        Mockito.when(searchIndex.isEnabled()).thenReturn(true);
+        Mockito.when(searchIndex.search("test", 10, 10)).thenReturn(List.of(2L, 1L));
+        Mockito.when(taskRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(task1, task2));
+
+        // Act
+        List<Task> results = taskService.findByKeyword("test", 1, 10);
+
+        // Assert
+        assertEquals(List.of(task2, task1), results);
+    }
+
+    @Test
+    @DisplayName("Get a page of task views by keyword from the search index in ranked order")
+    void findViewsByKeywordFromSearchIndex() {
+        // Arrange
+        Set<TaskField> fields = TaskField.parse("id,title");
+        TaskView view1 = new TaskView(1L, "test1", null, null, null, null, null, null, null);
+        TaskView view2 = new TaskView(2L, "test2", null, null, null, null, null, null, null);
+        Mockito.when(searchIndex.isEnabled()).thenReturn(true);
+        Mockito.when(searchIndex.search("test", 0, 10)).thenReturn(List.of(2L, 1L));
+        Mockito.when(taskRepository.findViewsById(List.of(2L, 1L), fields)).thenReturn(List.of(view1, view2));
+
+        // Act
+        List<TaskView> results = taskService.findViewsByKeyword("test", 0, 10, fields);
+
+        // Assert
+        assertEquals(List.of(view2, view1), results);
+    }
+
+    @Test
+    @DisplayName("Get tasks due within the next days")
+    void findDueWithinSuccess() {
+        // Arrange
+        Task task = new Task(1L, "test", "This is a test task",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now().plusDays(1));
+        Mockito.when(taskRepository.findDueWithin(Mockito.any(), Mockito.any(), Mockito.eq(10)))
                 .thenReturn(List.of(task));
 
         // Act
-        List<Task> results = taskService.findByStatus(TaskStatus.NOT_STARTED);
+        List<Task> results = taskService.findDueWithin(3, 10);
+
+        // Assert
+        assertEquals(List.of(task), results);
+    }
+
+    @Test
+    @DisplayName("Fail getting tasks due within zero days")
+    void findDueWithinFailWithZeroDays() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> taskService.findDueWithin(0, 10));
+    }
+
+    @Test
+    @DisplayName("Get the next tasks from the database when the board read model is not serving")
+    void findNextFromDatabase() {
+        // Arrange
+        TaskView view = new TaskView(1L, "test", null, null, null, null, TaskStatus.NOT_STARTED, 1, 0L);
+        Mockito.when(boardReadModel.findNext(10)).thenReturn(Optional.empty());
+        Mockito.when(taskRepository.findNext(10)).thenReturn(List.of(view));
+
+        // Act
+        List<TaskView> results = taskService.findNext(10);
+
+        // Assert
+        assertEquals(List.of(view), results);
+    }
+
+    @Test
+    @DisplayName("Apply buffered status changes in one batch")
+    void applyStatusesSuccess() {
+        // Arrange
+        Task moved = new Task(1L, "test", "This is test",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        moved.setVersion(3L);
+        Task unchanged = new Task(2L, "test", "This is test",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        unchanged.setStatus(TaskStatus.DONE);
+        Map<Long, TaskStatus> statuses = Map.of(1L, TaskStatus.DONE, 2L, TaskStatus.DONE);
+        Mockito.when(taskRepository.findAllById(statuses.keySet())).thenReturn(List.of(moved, unchanged));
+        Mockito.when(taskRepository.reserveRevisions(1)).thenReturn(10L);
+        Mockito.when(taskRepository.updateStatuses(List.of(moved))).thenReturn(new int[]{1});
+
+        // Act
+        int updated = taskService.applyStatuses(statuses);
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(TaskStatus.DONE, moved.getStatus());
+        assertEquals(4L, moved.getVersion());
+        assertEquals(10L, moved.getRevision());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.statusChanged(moved, TaskStatus.NOT_STARTED));
+    }
+
+    @Test
+    @DisplayName("Get the changes after a revision")
+    void getChangesSinceSuccess() {
+        // Arrange
+        Task task = new Task(1L, "test", "This is test",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        task.touch(7L, LocalDateTime.now());
+        Mockito.when(taskRepository.findChangesSince(5L, 10)).thenReturn(List.of(task));
+
+        // Act
+        TaskChanges changes = taskService.getChangesSince(5L, 10);
+
+        // Assert
+        assertEquals(List.of(task), changes.tasks());
+        assertEquals(7L, changes.revision());
+        assertFalse(changes.hasMore());
+    }
+
+    @Test
+    @DisplayName("Fail getting changes after a negative revision")
+    void getChangesSinceFailWithNegativeRevision() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> taskService.getChangesSince(-1L, 10));
+    }
+
+    @Test
+    @DisplayName("Fail getting a page of tasks with a negative page")
+    void findByKeywordPageFailWithNegativePage() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> taskService.findByKeyword("test", -1, 10));
+    }
+
+    @Test
+    @DisplayName("Get tasks by status")
+    void findByStatusSuccess() {
+        // Arrange
+        TaskView view = new TaskView(1L, "test1", null, null, null, null, TaskStatus.NOT_STARTED, 1, 0L);
+        Mockito.when(boardReadModel.findByStatus(TaskStatus.NOT_STARTED)).thenReturn(Optional.empty());
+        Mockito.when(taskRepository.findViews(TaskStatus.NOT_STARTED, TaskSort.ID, null, Integer.MAX_VALUE,
+                TaskField.ALL)).thenReturn(List.of(view));
+
+        // Act
+        List<TaskView> results = taskService.findViewsByStatus(TaskStatus.NOT_STARTED);
 
         // Assert
         assertEquals(1, results.size());
@@ -253,15 +507,57 @@ class TaskServiceTest {
         TaskStatus status = null;
 
         // Act & Assert
-        assertThrows(IllegalArgumentException.class, () -> taskService.findByStatus(status));
+        assertThrows(IllegalArgumentException.class, () -> taskService.findViewsByStatus(status));
+    }
+
+    @Test
+    @DisplayName("Update status successfully")
+    void updateStatusSuccess() {
+        // Arrange
+        Task task = new Task(1L, "test", "This is test",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        Mockito.when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        Mockito.when(taskRepository.save(task)).thenReturn(task);
+
+        // Act
+        Optional<Task> result = taskService.updateStatus(1L, TaskStatus.DONE);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(TaskStatus.DONE, result.get().getStatus());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.statusChanged(task, TaskStatus.NOT_STARTED));
+    }
+
+    @Test
+    @DisplayName("Fail updating status of a task that doesn't exist")
+    void updateStatusNotFound() {
+        // Arrange
+        Mockito.when(taskRepository.findById(2L)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<Task> result = taskService.updateStatus(2L, TaskStatus.DONE);
+
+        // Assert
+        assertFalse(result.isPresent());
     }
 
     @Test
     @DisplayName("Delete a task successfully")
     void deleteTaskSuccess() {
+        // Arrange
+        Task task = new Task(1L, "test", "This is test",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        Mockito.when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        Mockito.when(taskRepository.reserveRevisions(1)).thenReturn(42L);
+
+        // Act
         taskService.deleteTask(1L);
 
-        verify(taskRepository).deleteById(1L);
+        // Assert
+        assertTrue(task.isDeleted());
+        assertEquals(42L, task.getRevision());
+        verify(taskRepository).save(task);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(1L, TaskStatus.NOT_STARTED, 42L));
     }
 
 
@@ -0,0 +1,110 @@
+package se.jensen.yuki.taskmanager.web;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HtmlLinkResourceTransformerTest {
+    @Mock
+    ResourceTransformerChain transformerChain;
+
+    @Mock
+    ResourceResolverChain resolverChain;
+
+    private final HtmlLinkResourceTransformer transformer = new HtmlLinkResourceTransformer();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index.html");
+
+    @Test
+    @DisplayName("Rewrite relative links to the versioned URLs and leave external links alone")
+    void rewriteRelativeLinks() throws IOException {
+        // Arrange
+        Resource page = resource("index.html", """
+                <link rel="stylesheet" href="styles.css">
+                <script src="https://unpkg.com/feather-icons"></script>
+                <a href="#board">Board</a>
+                <script src="app.js"></script>
+                """);
+        when(transformerChain.transform(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        when(transformerChain.getResolverChain()).thenReturn(resolverChain);
+        when(resolverChain.resolveUrlPath("styles.css", List.of(page))).thenReturn("styles-5f2b.css");
+        when(resolverChain.resolveUrlPath("app.js", List.of(page))).thenReturn("app-9c1e.js");
+
+        // Act
+        Resource transformed = transformer.transform(request, page, transformerChain);
+
+        // Assert
+        assertEquals("""
+                <link rel="stylesheet" href="styles-5f2b.css">
+                <script src="https://unpkg.com/feather-icons"></script>
+                <a href="#board">Board</a>
+                <script src="app-9c1e.js"></script>
+                """, content(transformed));
+    }
+
+    @Test
+    @DisplayName("Keep a link that the resource chain can't resolve")
+    void keepUnresolvedLink() throws IOException {
+        // Arrange
+        Resource page = resource("index.html", "<img src=\"missing.png\">");
+        when(transformerChain.transform(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        when(transformerChain.getResolverChain()).thenReturn(resolverChain);
+        when(resolverChain.resolveUrlPath("missing.png", List.of(page))).thenReturn(null);
+
+        // Act
+        Resource transformed = transformer.transform(request, page, transformerChain);
+
+        // Assert
+        assertEquals("<img src=\"missing.png\">", content(transformed));
+    }
+
+    @Test
+    @DisplayName("Leave resources other than HTML unchanged")
+    void skipOtherResources() throws IOException {
+        // Arrange
+        Resource script = resource("app.js", "const src=\"x.js\";");
+        when(transformerChain.transform(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+
+        // Act
+        Resource transformed = transformer.transform(request, script, transformerChain);
+
+        // Assert
+        assertSame(script, transformed);
+    }
+
+    private static Resource resource(String filename, String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+
+            // TransformedResource copies it; a ByteArrayResource has no file to take it from.
+            @Override
+            public long lastModified() {
+                return 0;
+            }
+        };
+    }
+
+    private static String content(Resource resource) throws IOException {
+        return StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
+    }
+}
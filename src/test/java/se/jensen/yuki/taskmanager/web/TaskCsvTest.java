@@ -0,0 +1,87 @@
+package se.jensen.yuki.taskmanager.web;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import se.jensen.yuki.taskmanager.model.Task;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskCsvTest {
+
+    @Test
+    @DisplayName("Read back what the writer wrote, including quotes, commas and line breaks")
+    void roundTrip() throws IOException {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2024, 3, 7, 9, 5, 1);
+        Task task = new Task(1L, "Say \"hi\", then go", "Line 1\r\nLine 2", now, null, now.plusDays(1));
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        task.setPriority(1);
+        Task empty = new Task(2L, "", null, null, null, null);
+        StringWriter csv = new StringWriter();
+        TaskCsvWriter.writeHeader(csv);
+        TaskCsvWriter.writeRow(csv, task);
+        TaskCsvWriter.writeRow(csv, empty);
+
+        // Act
+        TaskCsvReader reader = new TaskCsvReader(new BufferedReader(new StringReader(csv.toString())));
+        Task first = reader.next();
+        Task second = reader.next();
+
+        // Assert
+        assertEquals(task.getTitle(), first.getTitle());
+        assertEquals(task.getDescription(), first.getDescription());
+        assertEquals(now, first.getCreatedDatetime());
+        assertNull(first.getStartDatetime());
+        assertEquals(now.plusDays(1), first.getEndDatetime());
+        assertEquals(TaskStatus.IN_PROGRESS, first.getStatus());
+        assertEquals(1, first.getPriority());
+        assertNull(first.getId());
+        assertEquals("", second.getTitle());
+        assertNull(second.getDescription());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    @DisplayName("Match columns by header name and skip an invalid row")
+    void readColumnsByName() {
+        // Arrange
+        String csv = """
+                status,title
+                DONE,First
+
+                NOPE,Second
+                NOT_STARTED,Third
+                """;
+
+        // Act
+        TaskCsvReader reader = new TaskCsvReader(new BufferedReader(new StringReader(csv)));
+        Task first = reader.next();
+        IllegalArgumentException invalid = assertThrows(IllegalArgumentException.class, reader::next);
+        Task third = reader.next();
+
+        // Assert
+        assertEquals("First", first.getTitle());
+        assertEquals(TaskStatus.DONE, first.getStatus());
+        assertTrue(invalid.getMessage().startsWith("Row 2"));
+        assertEquals("Third", third.getTitle());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    @DisplayName("Fail reading CSV without a header row")
+    void readFailWithoutHeader() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new TaskCsvReader(new BufferedReader(new StringReader(""))));
+    }
+}
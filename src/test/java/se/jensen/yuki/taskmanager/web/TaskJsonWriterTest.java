@@ -0,0 +1,66 @@
+package se.jensen.yuki.taskmanager.web;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import se.jensen.yuki.taskmanager.dto.TaskView;
+import se.jensen.yuki.taskmanager.model.TaskField;
+import se.jensen.yuki.taskmanager.model.TaskStatus;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskJsonWriterTest {
+
+    @Test
+    @DisplayName("Write the same JSON as Jackson when all fields are selected")
+    void writeSameJsonAsJackson() throws IOException {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2024, 3, 7, 9, 5, 1);
+        List<TaskView> tasks = List.of(
+                new TaskView(1L, "Say \"hi\"", "Line 1\nLine 2\t\\ \u0001 åäö", now, null, now.plusDays(1),
+                        TaskStatus.IN_PROGRESS, 1, 3L),
+                new TaskView(2L, null, null, null, null, null, null, null, null));
+
+        // Act
+        String json = write(tasks, TaskField.ALL);
+
+        // Assert
+        assertEquals(JsonMapper.builder().build().writeValueAsString(tasks), json);
+    }
+
+    @Test
+    @DisplayName("Write only the selected fields")
+    void writeSelectedFields() throws IOException {
+        // Arrange
+        List<TaskView> tasks = List.of(new TaskView(1L, "test", "Long description",
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5), null, LocalDateTime.of(2024, 1, 2, 3, 4, 5),
+                TaskStatus.DONE, 3, 0L));
+
+        // Act
+        String json = write(tasks, TaskField.parse("title,endDatetime"));
+
+        // Assert
+        assertEquals("[{\"id\":1,\"title\":\"test\",\"endDatetime\":\"2024-01-02T03:04:05\"}]", json);
+    }
+
+    @Test
+    @DisplayName("Fail parsing an unknown field")
+    void parseFailWithUnknownField() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> TaskField.parse("title,owner"));
+    }
+
+    private static String write(List<TaskView> tasks, Set<TaskField> fields) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskJsonWriter.write(tasks, fields, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}